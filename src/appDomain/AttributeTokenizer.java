@@ -0,0 +1,288 @@
+package appDomain;
+
+import java.util.Arrays;
+
+/**
+ * AttributeTokenizer.java
+ *
+ * @author Team Riju
+ *
+ * Splits the attributes of a start tag into name and value offsets into the
+ * buffer holding the tag, so callers read names and values in place. A
+ * repeated name is found with a small open-addressing set of the names seen
+ * in the tag, keyed by a hash of the name bytes and compared byte for byte
+ * on a collision. The set is never cleared: every tag gets a new generation
+ * number and slots stamped with an older one count as empty. After warm-up,
+ * tokenizing a tag allocates nothing.
+ *
+ * Given a SymbolTable, the tokenizer also gives each name its id, so names
+ * can be compared across tags. The table keeps every name it has seen, so
+ * only a caller that needs ids should pass one; the validator does not, and
+ * its memory stays bounded however many distinct names its inputs hold.
+ *
+ * A tokenizer holds the attributes of one tag at a time and is not safe for
+ * concurrent use.
+ */
+public class AttributeTokenizer {
+    private final SymbolTable symbols;	// null if names get no ids
+    private byte[] buf;	// holds the tag being tokenized
+    private int[] offsets;	// per attribute: name start, name end, value start, value end
+    private int[] hashes;	// per attribute: hash of the name bytes
+    private int[] ids;	// per attribute: symbol id of the name
+    private int count;
+    private int stop;	// where the last tokenize stopped reading
+    private int duplicate;
+    private int[] setAttributes;	// index of the attribute in each slot
+    private int[] setStamps;
+    private int generation;
+
+    /**
+     * Creates a tokenizer that finds repeated names without giving names ids.
+     */
+    public AttributeTokenizer() {
+        this(null);
+    }
+
+    /**
+     * @param symbols the table attribute names are interned in; tokenizers
+     *                sharing a table give equal names equal ids.
+     */
+    public AttributeTokenizer(SymbolTable symbols) {
+        this.symbols = symbols;
+        offsets = new int[4 * 8];
+        hashes = new int[8];
+        ids = new int[8];
+        setAttributes = new int[16];
+        setStamps = new int[16];
+    }
+
+    /**
+     * Reads the attributes of the tag in buf from the '<' at from to the end
+     * of the tag. End tags and declarations have no attributes. Reading stops
+     * at the first malformed attribute.
+     *
+     * @param buf  buffer holding the tag.
+     * @param from index of the tag's '<'.
+     * @param to   index after the tag's '>'.
+     * @return the number of attributes read.
+     */
+    public int tokenize(byte[] buf, int from, int to) {
+        this.buf = buf;
+        count = 0;
+        duplicate = -1;
+        stop = to;
+        if (to - from < 3 || buf[from + 1] == '/' || buf[from + 1] == '!') {
+            return 0;
+        }
+        if (++generation == 0) {
+            Arrays.fill(setStamps, 0);
+            generation = 1;
+        }
+
+        // Skip the element name
+        int i = from + 1;
+        while (i < to && !isSpace(buf[i]) && buf[i] != '/' && buf[i] != '>') {
+            i++;
+        }
+
+        while (true) {
+            while (i < to && isSpace(buf[i])) {
+                i++;
+            }
+            int nameStart = i;
+            stop = i;
+            while (i < to && buf[i] != '=' && !isSpace(buf[i]) && buf[i] != '/' && buf[i] != '>') {
+                i++;
+            }
+            int nameEnd = i;
+            while (i < to && isSpace(buf[i])) {
+                i++;
+            }
+            if (nameEnd == nameStart || i == to || buf[i] != '=') {
+                return count;
+            }
+            i++;
+            while (i < to && isSpace(buf[i])) {
+                i++;
+            }
+            if (i == to || (buf[i] != '"' && buf[i] != '\'')) {
+                return count;
+            }
+            byte quote = buf[i++];
+            int valueStart = i;
+            while (i < to && buf[i] != quote) {
+                i++;
+            }
+            if (i == to) {
+                return count;
+            }
+            add(buf, nameStart, nameEnd, valueStart, i);
+            i++;
+        }
+    }
+
+    /**
+     * Returns the number of attributes read by the last tokenize.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the index where the last tokenize stopped reading: the tag's
+     * closing '/' or '>' if every attribute was read, or else the start of
+     * the first malformed one. End tags and declarations stop at their end.
+     */
+    public int end() {
+        return stop;
+    }
+
+    /**
+     * Returns the index of the first attribute whose name repeats an earlier
+     * one in the same tag, or -1 if all names are distinct.
+     */
+    public int duplicate() {
+        return duplicate;
+    }
+
+    public int nameStart(int k) {
+        return offsets[4 * k];
+    }
+
+    public int nameEnd(int k) {
+        return offsets[4 * k + 1];
+    }
+
+    public int valueStart(int k) {
+        return offsets[4 * k + 2];
+    }
+
+    public int valueEnd(int k) {
+        return offsets[4 * k + 3];
+    }
+
+    /**
+     * Returns the symbol id of attribute k's name.
+     *
+     * @throws IllegalStateException if the tokenizer has no symbol table.
+     */
+    public int nameId(int k) {
+        requireSymbols();
+        return ids[k];
+    }
+
+    /**
+     * Returns the index of the attribute with the given name id, or -1.
+     *
+     * @throws IllegalStateException if the tokenizer has no symbol table.
+     */
+    public int find(int nameId) {
+        requireSymbols();
+        for (int k = 0; k < count; k++) {
+            if (ids[k] == nameId) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the attribute named as attribute k of other is, or
+     * -1. Names are matched by hash and then byte for byte, so two tokenizers
+     * can be compared without a symbol table.
+     *
+     * @param other a tokenizer holding another tag, or this one.
+     * @param k     the index of an attribute read by other.
+     */
+    public int find(AttributeTokenizer other, int k) {
+        int from = other.offsets[4 * k];
+        int length = other.offsets[4 * k + 1] - from;
+        for (int i = 0; i < count; i++) {
+            if (hashes[i] == other.hashes[k] && offsets[4 * i + 1] - offsets[4 * i] == length
+                    && regionEquals(buf, offsets[4 * i], other.buf, from, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void add(byte[] buf, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        if (count == hashes.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        offsets[4 * count] = nameStart;
+        offsets[4 * count + 1] = nameEnd;
+        offsets[4 * count + 2] = valueStart;
+        offsets[4 * count + 3] = valueEnd;
+        hashes[count] = SymbolTable.hash(buf, nameStart, nameEnd - nameStart);
+        if (symbols != null) {
+            ids[count] = symbols.intern(buf, nameStart, nameEnd - nameStart);
+        }
+        if (!addToSet(count) && duplicate < 0) {
+            duplicate = count;
+        }
+        count++;
+    }
+
+    /**
+     * Adds attribute k's name to this tag's set, returning false if an equal
+     * name was already there. The set is kept at most half full.
+     */
+    private boolean addToSet(int k) {
+        if (2 * (k + 1) > setAttributes.length) {
+            growSet();
+        }
+        int mask = setAttributes.length - 1;
+        int slot = (hashes[k] * 0x9E3779B9) >>> 16 & mask;
+        while (setStamps[slot] == generation) {
+            int other = setAttributes[slot];
+            if (hashes[other] == hashes[k] && sameName(other, k)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        setAttributes[slot] = k;
+        setStamps[slot] = generation;
+        return true;
+    }
+
+    /**
+     * Doubles the set and puts back the names of the attributes read so far,
+     * first occurrences only.
+     */
+    private void growSet() {
+        setAttributes = new int[setAttributes.length * 2];
+        setStamps = new int[setStamps.length * 2];
+        for (int k = 0; k < count; k++) {
+            addToSet(k);
+        }
+    }
+
+    private boolean sameName(int a, int b) {
+        int fromA = offsets[4 * a];
+        int fromB = offsets[4 * b];
+        int length = offsets[4 * a + 1] - fromA;
+        return offsets[4 * b + 1] - fromB == length && regionEquals(buf, fromA, buf, fromB, length);
+    }
+
+    private static boolean regionEquals(byte[] a, int fromA, byte[] b, int fromB, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[fromA + i] != b[fromB + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void requireSymbols() {
+        if (symbols == null) {
+            throw new IllegalStateException("This tokenizer gives names no ids");
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,110 @@
+package appDomain;
+
+import java.nio.ByteBuffer;
+
+import implementations.MyStack;
+
+/**
+ * BufferArena.java
+ *
+ * @author Team Riju
+ *
+ * A pool of direct ByteBuffers shared by every read path in the parser. Sizes
+ * are rounded up to a size class, a power-of-two multiple of the filesystem
+ * block size, and released buffers are kept on a free list per class for the
+ * next caller. The total direct memory the arena allocates is capped; once the
+ * cap is reached, requests that cannot be met from a free list get an unpooled
+ * heap buffer instead. Batch validation therefore stops allocating per file,
+ * and large short-lived arrays never reach the garbage collector.
+ */
+public class BufferArena {
+    /** Filesystem block size; Java 8 has no portable way to query it. */
+    public static final int BLOCK_SIZE = 4096;
+    private static final int CLASS_COUNT = 9;	// BLOCK_SIZE up to BLOCK_SIZE << 8 (1 MB)
+    private static final long DEFAULT_CAPACITY = Long.getLong("xmlparser.arena.bytes", 64L * 1024 * 1024);
+
+    private static final BufferArena SHARED = new BufferArena(DEFAULT_CAPACITY);
+
+    private final long capacity;
+    private final MyStack<ByteBuffer>[] free;
+    private long allocated;
+
+    /**
+     * @param capacity the most direct memory, in bytes, the arena may allocate.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public BufferArena(long capacity) {
+        this.capacity = capacity;
+        free = new MyStack[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            free[i] = new MyStack<>();
+        }
+    }
+
+    /**
+     * Returns the arena used by the parser's read paths. Its capacity comes
+     * from the xmlparser.arena.bytes system property, 64 MB by default.
+     */
+    public static BufferArena shared() {
+        return SHARED;
+    }
+
+    /**
+     * Borrows a cleared buffer with a capacity of at least size bytes.
+     *
+     * @param size the minimum capacity needed.
+     * @return a buffer to be handed back with release.
+     */
+    public ByteBuffer acquire(int size) {
+        int sizeClass = sizeClass(size);
+        if (sizeClass == -1) {
+            return ByteBuffer.allocate(size);
+        }
+
+        int classSize = BLOCK_SIZE << sizeClass;
+        synchronized (this) {
+            if (!free[sizeClass].isEmpty()) {
+                ByteBuffer buffer = free[sizeClass].pop();
+                buffer.clear();
+                return buffer;
+            }
+            if (allocated + classSize > capacity) {
+                return ByteBuffer.allocate(size);
+            }
+            allocated += classSize;
+        }
+        return ByteBuffer.allocateDirect(classSize);
+    }
+
+    /**
+     * Hands a buffer from acquire back to the arena. Heap buffers given out
+     * when the arena was full are simply dropped.
+     *
+     * @param buffer the buffer to return; may be null.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        int sizeClass = sizeClass(buffer.capacity());
+        synchronized (this) {
+            free[sizeClass].push(buffer);
+        }
+    }
+
+    /**
+     * Returns the direct memory allocated so far, pooled or in use.
+     */
+    public synchronized long allocatedBytes() {
+        return allocated;
+    }
+
+    private static int sizeClass(int size) {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            if (size <= BLOCK_SIZE << i) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
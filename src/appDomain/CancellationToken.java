@@ -0,0 +1,134 @@
+package appDomain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CancellationToken.java
+ *
+ * @author Team Riju
+ *
+ * Lets a caller stop a validation that is taking too long, either explicitly
+ * with cancel or automatically once a deadline passes. The parser polls the
+ * token once per chunk read, every 64 KB of input, so checking costs nothing
+ * measurable; a stopped validation returns what it found up to that point.
+ *
+ * Polling cannot stop a read that blocks, as on a stalled network upload. The
+ * input being read can therefore be registered with closeOnCancel: if it is
+ * still registered a second after the token is cancelled or its deadline
+ * passes, it is closed, which makes the blocked read fail.
+ */
+public class CancellationToken {
+    /** A token that is never cancelled. */
+    public static final CancellationToken NONE = new CancellationToken(Long.MAX_VALUE);
+    private static final long CLOSE_GRACE_MILLIS = 1000;	// time for the parser to notice before its input is closed
+    private static final ScheduledExecutorService CLOSER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "xml-cancel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long deadline;	// System.nanoTime() value, or Long.MAX_VALUE for none
+    private volatile boolean cancelled;
+    private Closeable input;	// closed if still registered after cancellation
+    private ScheduledFuture<?> closing;
+
+    private CancellationToken(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a token that can only be cancelled explicitly.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a token that cancels itself once the timeout has elapsed.
+     *
+     * @param timeoutMillis the time allowed, in milliseconds, from now.
+     */
+    public static CancellationToken withTimeout(long timeoutMillis) {
+        return new CancellationToken(System.nanoTime() + timeoutMillis * 1_000_000L);
+    }
+
+    /**
+     * Cancels the validation using this token. Safe to call from any thread.
+     */
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+            scheduleClose();
+        }
+    }
+
+    /**
+     * Registers the input of the validation using this token, replacing any
+     * registered before. If it is still registered a second after the token
+     * is cancelled or its deadline passes, it is closed on another thread,
+     * since closing some streams blocks. The never-cancelled NONE token
+     * ignores this.
+     *
+     * @param input the input to close, or null to clear the registration
+     *              once the validation is over.
+     */
+    public synchronized void closeOnCancel(Closeable input) {
+        if (this == NONE) {
+            return;
+        }
+        this.input = input;
+        scheduleClose();
+    }
+
+    private synchronized void scheduleClose() {
+        if (closing != null) {
+            closing.cancel(false);
+            closing = null;
+        }
+        if (input == null || (!cancelled && deadline == Long.MAX_VALUE)) {
+            return;
+        }
+        long delay = cancelled ? 0 : Math.max(0, deadline - System.nanoTime());
+        closing = CLOSER.schedule(this::closeInput, delay + TimeUnit.MILLISECONDS.toNanos(CLOSE_GRACE_MILLIS),
+                TimeUnit.NANOSECONDS);
+    }
+
+    private void closeInput() {
+        Closeable target;
+        synchronized (this) {
+            target = input;
+            input = null;
+            closing = null;
+        }
+        if (target != null) {
+            Thread closer = new Thread(() -> {
+                try {
+                    target.close();
+                } catch (IOException e) {
+                    // The read it unblocks reports the failure
+                }
+            }, "xml-cancel-close");
+            closer.setDaemon(true);
+            closer.start();
+        }
+    }
+
+    /**
+     * Returns true once the token has been cancelled or its deadline has passed.
+     */
+    public boolean isCancelled() {
+        return cancelled || (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0);
+    }
+
+    /**
+     * Returns why the token stopped the validation.
+     */
+    public String reason() {
+        return cancelled ? "cancelled" : "deadline exceeded";
+    }
+}
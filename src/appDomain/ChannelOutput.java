@@ -0,0 +1,100 @@
+package appDomain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * ChannelOutput.java
+ *
+ * @author Team Riju
+ *
+ * Buffered byte output to a channel for the listeners that write documents
+ * during validation. One buffer is borrowed from the BufferArena and reused
+ * until close, so output never piles up in memory.
+ *
+ * The write methods are called from TagHandler callbacks, which cannot throw
+ * IOException, so a failed write is thrown as an UncheckedIOException, which
+ * XMLParser unwraps again.
+ */
+public class ChannelOutput implements Closeable {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param channel    the destination; it is closed by close.
+     * @param bufferSize the size of the output buffer.
+     */
+    public ChannelOutput(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = BufferArena.shared().acquire(bufferSize);
+    }
+
+    public void write(byte b) {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put(b);
+    }
+
+    public void write(char c) {
+        write((byte) c);
+    }
+
+    /**
+     * Writes a string that holds only ASCII characters.
+     */
+    public void write(String ascii) {
+        for (int k = 0; k < ascii.length(); k++) {
+            write((byte) ascii.charAt(k));
+        }
+    }
+
+    public void write(byte[] bytes, int from, int to) {
+        for (int k = from; k < to; k++) {
+            write(bytes[k]);
+        }
+    }
+
+    public void write(ByteBuffer chunk, int from, int to) {
+        for (int k = from; k < to; k++) {
+            write(chunk.get(k));
+        }
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     *
+     * @throws IOException if the channel fails.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes out what is buffered, releases the buffer and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            BufferArena.shared().release(buffer);
+            channel.close();
+        }
+    }
+
+    private void drain() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package appDomain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ChunkRing.java
+ *
+ * @author Team Riju
+ *
+ * A bounded single-producer/single-consumer ring of pooled read buffers. The
+ * buffers are borrowed from the BufferArena for the length of a run and cycle
+ * between the reader stage, which fills them, and the tokenizer stage, which
+ * scans them, so memory stays fixed at capacity times the chunk size however
+ * large the input is. An empty chunk marks the end of the input.
+ */
+public class ChunkRing {
+    private final SpscSequencer sequencer;
+    private final ByteBuffer[] buffers;
+    private final int chunkSize;
+
+    public ChunkRing(int capacity, int chunkSize) {
+        sequencer = new SpscSequencer(capacity);
+        buffers = new ByteBuffer[capacity];
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Borrows the ring's buffers from the arena and clears the counters for a
+     * new run.
+     */
+    public void open(BufferArena arena) {
+        sequencer.reset();
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = arena.acquire(chunkSize);
+            buffers[i].limit(chunkSize);
+        }
+    }
+
+    /**
+     * Returns the ring's buffers to the arena once both sides have stopped.
+     */
+    public void close(BufferArena arena) {
+        for (int i = 0; i < buffers.length; i++) {
+            arena.release(buffers[i]);
+            buffers[i] = null;
+        }
+    }
+
+    /**
+     * Reader side: waits for a free buffer and returns it cleared for filling.
+     */
+    public ByteBuffer claim() {
+        ByteBuffer buffer = buffers[sequencer.awaitFree()];
+        buffer.clear();
+        buffer.limit(chunkSize);
+        return buffer;
+    }
+
+    /**
+     * Reader side: publishes the claimed buffer, which must already be flipped.
+     */
+    public void publish() {
+        sequencer.publish();
+    }
+
+    /**
+     * Tokenizer side: waits for the next filled buffer.
+     */
+    public ByteBuffer take() {
+        return buffers[sequencer.awaitPublished()];
+    }
+
+    /**
+     * Tokenizer side: returns the buffer from take to the pool.
+     */
+    public void release() {
+        sequencer.release();
+    }
+
+    public void abort() {
+        sequencer.abort();
+    }
+}
@@ -0,0 +1,115 @@
+package appDomain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * CompressedInput.java
+ *
+ * @author Team Riju
+ *
+ * Recognises gzip and zip input from its leading magic bytes, so archived
+ * manifests can be validated through a streaming decompressor instead of
+ * being decompressed to disk first.
+ */
+public final class CompressedInput {
+    public static final int NONE = 0;
+    public static final int GZIP = 1;
+    public static final int ZIP = 2;
+
+    private static final int MAGIC_LENGTH = 4;
+
+    private CompressedInput() {
+    }
+
+    /**
+     * Identifies the format from the first bytes of the input.
+     *
+     * @param head   the leading bytes.
+     * @param length number of valid bytes in head.
+     * @return NONE, GZIP or ZIP.
+     */
+    public static int detect(byte[] head, int length) {
+        if (length >= 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (length >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4) {
+            return ZIP;
+        }
+        return NONE;
+    }
+
+    /**
+     * Identifies the format of a file without moving the channel's position.
+     *
+     * @param channel an open file.
+     * @return NONE, GZIP or ZIP.
+     * @throws IOException if the file cannot be read.
+     */
+    public static int detect(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(MAGIC_LENGTH);
+        long position = 0;
+        int n;
+        while (head.hasRemaining() && (n = channel.read(head, position)) != -1) {
+            position += n;
+        }
+        return detect(head.array(), head.position());
+    }
+
+    /**
+     * Identifies the format of a channel that cannot seek, such as a pipe.
+     * The magic bytes are consumed from source and replayed by the returned
+     * channel, which must be read instead of source from then on.
+     *
+     * @param source the input.
+     * @param format receives NONE, GZIP or ZIP in element 0.
+     * @return a channel yielding the whole input.
+     * @throws IOException if the input cannot be read.
+     */
+    public static ReadableByteChannel detect(ReadableByteChannel source, int[] format) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(MAGIC_LENGTH);
+        while (head.hasRemaining() && source.read(head) != -1) {
+            // read the magic bytes
+        }
+        head.flip();
+        format[0] = detect(head.array(), head.limit());
+        return new ReplayChannel(head, source);
+    }
+
+    /**
+     * Yields the buffered head of the input, then reads through to the rest.
+     */
+    static class ReplayChannel implements ReadableByteChannel {
+        private final ByteBuffer head;
+        private final ReadableByteChannel rest;
+
+        ReplayChannel(ByteBuffer head, ReadableByteChannel rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!head.hasRemaining()) {
+                return rest.read(dst);
+            }
+            int n = Math.min(head.remaining(), dst.remaining());
+            for (int i = 0; i < n; i++) {
+                dst.put(head.get());
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return rest.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            rest.close();
+        }
+    }
+}
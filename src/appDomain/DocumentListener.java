@@ -0,0 +1,55 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * DocumentListener.java
+ *
+ * @author Team Riju
+ *
+ * Receives the tags and text of a document as an XMLParser validates it, so
+ * that work such as conversion runs in the same pass over the input instead
+ * of reading it a second time. The parser calls a listener on the thread that
+ * called it, after the tag rules have been applied to each tag.
+ */
+public interface DocumentListener extends TagHandler {
+
+    /**
+     * Called before the first tag of each document.
+     */
+    default void startDocument() {
+    }
+
+    /**
+     * Called after the last tag of each document.
+     *
+     * @param complete false if the validation was stopped before the end of
+     *                 the input.
+     * @throws IOException if the listener's output fails.
+     */
+    void endDocument(boolean complete) throws IOException;
+
+    /**
+     * Called after the error log of each document, for a listener to add
+     * its own report. By default nothing is printed.
+     *
+     * @param out the stream holding the error log.
+     */
+    default void printSummary(PrintStream out) {
+    }
+
+    /**
+     * Returns true if the listener reads the text of tags as UTF-8, which
+     * it does by default. The parser then transcodes input in any other
+     * encoding to UTF-8 first, so offsets count bytes of the transcoded
+     * input. A listener that copies the input by offset returns false.
+     */
+    default boolean needsUtf8() {
+        return true;
+    }
+
+    @Override
+    default void unterminated(byte[] opener, int length, int line, int column) {
+    }
+}
@@ -0,0 +1,218 @@
+package appDomain;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * DocumentProfiler.java
+ *
+ * @author Team Riju
+ *
+ * Collects statistics about a document during validation: for every element
+ * name, how often it occurs, how many attributes it carries, how deep it is
+ * nested, and how many of the document's bytes it holds itself, excluding its
+ * child elements. A histogram of element depths is kept as well.
+ *
+ * Names are mapped to ids by a SymbolTable copied from the validation
+ * engine's, and every statistic is a primitive array indexed by id, so
+ * counting a tag only hashes its name in place and allocates nothing.
+ */
+public class DocumentProfiler implements DocumentListener {
+    private static final int BAR_WIDTH = 40;
+    private static final int MAX_ROWS = 20;
+
+    private final SymbolTable symbols;
+    private final AttributeTokenizer attributeTokenizer = new AttributeTokenizer();
+    private long[] counts;
+    private long[] attributes;
+    private long[] depthSums;
+    private int[] maxDepths;
+    private long[] ownBytes;
+    private long[] depthHistogram;
+    private int[] openIds;	// the path of open elements
+    private long[] openStarts;
+    private long[] openChildBytes;
+    private int depth;
+    private long elements;
+    private long end;	// offset just past the last tag
+
+    /**
+     * @param symbols known names; the profiler works on its own copy.
+     */
+    public DocumentProfiler(SymbolTable symbols) {
+        this.symbols = new SymbolTable(symbols);
+        int capacity = Math.max(16, this.symbols.size());
+        counts = new long[capacity];
+        attributes = new long[capacity];
+        depthSums = new long[capacity];
+        maxDepths = new int[capacity];
+        ownBytes = new long[capacity];
+        depthHistogram = new long[16];
+        openIds = new int[16];
+        openStarts = new long[16];
+        openChildBytes = new long[16];
+    }
+
+    @Override
+    public void startDocument() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(attributes, 0);
+        Arrays.fill(depthSums, 0);
+        Arrays.fill(maxDepths, 0);
+        Arrays.fill(ownBytes, 0);
+        Arrays.fill(depthHistogram, 0);
+        depth = 0;
+        elements = 0;
+        end = 0;
+    }
+
+    @Override
+    public void tag(byte[] text, int length, int line, long offset) {
+        if (length < 3 || text[1] == '!') {
+            return;
+        }
+        end = offset + length;
+        if (text[1] == '/') {
+            if (depth > 0) {
+                depth--;
+                close(openIds[depth], openStarts[depth], end, openChildBytes[depth]);
+            }
+            return;
+        }
+
+        int nameEnd = 1;
+        while (nameEnd < length && !isSpace(text[nameEnd]) && text[nameEnd] != '/' && text[nameEnd] != '>') {
+            nameEnd++;
+        }
+        int id = symbols.intern(text, 1, nameEnd - 1);
+        if (id >= counts.length) {
+            grow(symbols.size());
+        }
+        int level = depth + 1;
+        counts[id]++;
+        attributes[id] += attributeTokenizer.tokenize(text, 0, length);
+        depthSums[id] += level;
+        maxDepths[id] = Math.max(maxDepths[id], level);
+        if (level >= depthHistogram.length) {
+            depthHistogram = Arrays.copyOf(depthHistogram, level * 2);
+        }
+        depthHistogram[level]++;
+        elements++;
+
+        if (text[length - 2] == '/') {
+            close(id, offset, end, 0);
+        } else {
+            if (depth == openIds.length) {
+                openIds = Arrays.copyOf(openIds, depth * 2);
+                openStarts = Arrays.copyOf(openStarts, depth * 2);
+                openChildBytes = Arrays.copyOf(openChildBytes, depth * 2);
+            }
+            openIds[depth] = id;
+            openStarts[depth] = offset;
+            openChildBytes[depth] = 0;
+            depth++;
+        }
+    }
+
+    @Override
+    public void endDocument(boolean complete) {
+        // Elements left open at the end hold everything up to the last tag
+        while (depth > 0) {
+            depth--;
+            close(openIds[depth], openStarts[depth], end, openChildBytes[depth]);
+        }
+    }
+
+    /**
+     * Prints the statistics of the last document, largest elements first.
+     */
+    @Override
+    public void printSummary(PrintStream out) {
+        int names = 0;
+        int[] ids = new int[symbols.size()];
+        long depthTotal = 0;
+        int maxDepth = 0;
+        for (int id = 0; id < ids.length && id < counts.length; id++) {
+            if (counts[id] > 0) {
+                ids[names++] = id;
+                depthTotal += depthSums[id];
+                maxDepth = Math.max(maxDepth, maxDepths[id]);
+            }
+        }
+        sortByOwnBytes(ids, names);
+
+        out.println();
+        out.println("=================DOCUMENT PROFILE=================");
+        out.printf("%d elements, %d bytes in tags and content, max depth %d, average depth %.1f%n", elements, end,
+                maxDepth, elements == 0 ? 0.0 : depthTotal / (double) elements);
+        out.printf("%-28s %8s %8s %9s %9s %10s %6s%n", "Element", "Count", "Attrs", "Avg depth", "Max depth",
+                "Own bytes", "Share");
+        for (int k = 0; k < names; k++) {
+            int id = ids[k];
+            out.printf("%-28s %8d %8d %9.1f %9d %10d %5.1f%%%n", symbols.name(id), counts[id], attributes[id],
+                    depthSums[id] / (double) counts[id], maxDepths[id], ownBytes[id],
+                    end == 0 ? 0.0 : ownBytes[id] * 100.0 / end);
+        }
+
+        if (maxDepth == 0) {
+            return;
+        }
+
+        // Deep documents are shown in ranges of depths, at most MAX_ROWS of them
+        out.println("Depth histogram:");
+        int step = (maxDepth + MAX_ROWS - 1) / MAX_ROWS;
+        long[] rows = new long[(maxDepth + step - 1) / step];
+        long widest = 0;
+        for (int level = 1; level <= maxDepth; level++) {
+            rows[(level - 1) / step] += depthHistogram[level];
+            widest = Math.max(widest, rows[(level - 1) / step]);
+        }
+        for (int row = 0; row < rows.length; row++) {
+            int first = row * step + 1;
+            String label = step == 1 ? String.valueOf(first) : first + "-" + Math.min(first + step - 1, maxDepth);
+            int bar = (int) Math.max(rows[row] > 0 ? 1 : 0, rows[row] * BAR_WIDTH / widest);
+            StringBuilder line = new StringBuilder(String.format("%13s | ", label));
+            for (int k = 0; k < bar; k++) {
+                line.append('#');
+            }
+            out.println(line.append(' ').append(rows[row]));
+        }
+    }
+
+    /**
+     * Credits a closed element with its bytes minus its children's, and its
+     * parent with its whole span.
+     */
+    private void close(int id, long start, long stop, long childBytes) {
+        long span = stop - start;
+        ownBytes[id] += span - childBytes;
+        if (depth > 0) {
+            openChildBytes[depth - 1] += span;
+        }
+    }
+
+    private void sortByOwnBytes(int[] ids, int n) {
+        for (int k = 1; k < n; k++) {
+            int id = ids[k];
+            int j = k;
+            while (j > 0 && ownBytes[ids[j - 1]] < ownBytes[id]) {
+                ids[j] = ids[j - 1];
+                j--;
+            }
+            ids[j] = id;
+        }
+    }
+
+    private void grow(int size) {
+        int capacity = Math.max(size, counts.length * 2);
+        counts = Arrays.copyOf(counts, capacity);
+        attributes = Arrays.copyOf(attributes, capacity);
+        depthSums = Arrays.copyOf(depthSums, capacity);
+        maxDepths = Arrays.copyOf(maxDepths, capacity);
+        ownBytes = Arrays.copyOf(ownBytes, capacity);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,185 @@
+package appDomain;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * ErrorAggregator.java
+ *
+ * @author Team Riju
+ *
+ * An ErrorReport that groups errors by kind and normalized tag instead of
+ * keeping every occurrence. Tags are normalized to their name, so
+ * <PackageCreationLocation FolderName="..."> and the same tag with another
+ * attribute value fall in one group. Each group keeps a count, its first
+ * occurrence and the first few line numbers, held in an open-addressing hash
+ * table, so memory and output are bounded by the number of distinct errors
+ * rather than their total.
+ */
+public class ErrorAggregator implements ErrorReport {
+    private final int linesPerGroup;
+    private int[] table;	// group index + 1, or 0 for an empty bucket
+    private int groupCount;
+    private ErrorKind[] kinds;
+    private String[] keys;
+    private String[] examples;
+    private long[] counts;
+    private int[][] lines;
+    private long total;
+
+    /**
+     * @param linesPerGroup how many line numbers to keep for each group.
+     */
+    public ErrorAggregator(int linesPerGroup) {
+        this.linesPerGroup = Math.max(0, linesPerGroup);
+        table = new int[64];
+        kinds = new ErrorKind[16];
+        keys = new String[16];
+        examples = new String[16];
+        counts = new long[16];
+        lines = new int[16][];
+    }
+
+    @Override
+    public void begin(String source) {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = 0;
+        }
+        for (int i = 0; i < groupCount; i++) {
+            keys[i] = null;
+            examples[i] = null;
+        }
+        groupCount = 0;
+        total = 0;
+    }
+
+    @Override
+    public void error(ErrorKind kind, int line, int column, String tag) {
+        String key = normalize(tag);
+        int group = find(kind, key);
+        if (group == -1) {
+            group = add(kind, key, tag);
+        }
+        if (counts[group] < linesPerGroup) {
+            lines[group][(int) counts[group]] = line;
+        }
+        counts[group]++;
+        total++;
+    }
+
+    @Override
+    public void end(PrintStream out, boolean complete) {
+        if (total == 0) {
+            out.println(complete ? "No errors found." : "No errors found so far.");
+            return;
+        }
+        out.println(total + (total == 1 ? " error" : " errors") + " in " + groupCount
+                + (groupCount == 1 ? " group" : " groups"));
+        for (int g = 0; g < groupCount; g++) {
+            out.println(kinds[g].label() + " x" + counts[g] + ": " + keys[g]);
+            if (linesPerGroup > 0) {
+                printLines(out, g);
+            }
+            if (!examples[g].equals(keys[g])) {
+                out.println("    first: " + examples[g]);
+            }
+        }
+    }
+
+    private void printLines(PrintStream out, int group) {
+        StringBuilder shown = new StringBuilder("    at line");
+        int kept = (int) Math.min(counts[group], linesPerGroup);
+        shown.append(kept == 1 ? " " : "s ");
+        for (int i = 0; i < kept; i++) {
+            if (i > 0) {
+                shown.append(", ");
+            }
+            shown.append(lines[group][i]);
+        }
+        if (counts[group] > kept) {
+            shown.append(", ...");
+        }
+        out.println(shown);
+    }
+
+    /**
+     * Reduces a tag to its name, keeping the markers that make it an end or
+     * self-closing tag: <a href="x"/> becomes <a/>.
+     */
+    static String normalize(String tag) {
+        if (!tag.endsWith(">")) {
+            return tag;	// the opener of an unterminated section
+        }
+        int end = 1;
+        if (end < tag.length() && tag.charAt(end) == '/') {
+            end++;
+        }
+        while (end < tag.length()) {
+            char c = tag.charAt(end);
+            if (c == '>' || c == '/' || Character.isWhitespace(c)) {
+                break;
+            }
+            end++;
+        }
+        String name = tag.substring(0, end);
+        if (tag.endsWith("/>") && !name.startsWith("</")) {
+            return name + "/>";
+        }
+        return name + ">";
+    }
+
+    private int find(ErrorKind kind, String key) {
+        int mask = table.length - 1;
+        for (int slot = hash(kind, key) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int group = table[slot] - 1;
+            if (kinds[group] == kind && keys[group].equals(key)) {
+                return group;
+            }
+        }
+        return -1;
+    }
+
+    private int add(ErrorKind kind, String key, String example) {
+        if (groupCount == keys.length) {
+            int capacity = keys.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            examples = Arrays.copyOf(examples, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+        }
+        int group = groupCount++;
+        kinds[group] = kind;
+        keys[group] = key;
+        examples[group] = example;
+        counts[group] = 0;
+        if (lines[group] == null) {
+            lines[group] = new int[linesPerGroup];
+        }
+
+        // Keep the table at most half full
+        if (groupCount * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int g = 0; g < groupCount; g++) {
+                insert(g);
+            }
+        } else {
+            insert(group);
+        }
+        return group;
+    }
+
+    private void insert(int group) {
+        int mask = table.length - 1;
+        int slot = hash(kinds[group], keys[group]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = group + 1;
+    }
+
+    private static int hash(ErrorKind kind, String key) {
+        int h = key.hashCode() * 31 + kind.ordinal();
+        return h ^ (h >>> 16);
+    }
+}
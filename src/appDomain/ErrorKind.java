@@ -0,0 +1,48 @@
+package appDomain;
+
+/**
+ * ErrorKind.java
+ *
+ * @author Team Riju
+ *
+ * The kinds of problem the parser reports, each with the wording used for it
+ * in the error log.
+ */
+public enum ErrorKind {
+    ERROR("Error"),
+    INVALID_CLOSE("Invalid close tag"),
+    UNTERMINATED("Unterminated section"),
+    DUPLICATE_ATTRIBUTE("Duplicate attribute"),
+    TOO_DEEP("Nesting too deep"),
+    TAG_TOO_LONG("Tag too long");
+
+    private final String label;
+
+    ErrorKind(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Returns the identifier used for this kind in machine-readable output.
+     *
+     * @return for example "invalid-close".
+     */
+    public String ruleId() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Returns the error log line announcing an error of this kind.
+     *
+     * @param line   the 1-based line of the error.
+     * @param column the 1-based column, or 0 if not known.
+     * @return for example "Error at line 8".
+     */
+    public String message(int line, int column) {
+        return column > 0 ? label + " at line " + line + ", column " + column : label + " at line " + line;
+    }
+}
@@ -0,0 +1,59 @@
+package appDomain;
+
+import java.io.PrintStream;
+
+/**
+ * ErrorReport.java
+ *
+ * @author Team Riju
+ *
+ * An alternative destination for the errors found by an XMLParser. When a
+ * parser has an ErrorReport, errors go to it as they are found instead of
+ * being queued for the plain error log. Reports that write machine-readable
+ * output of their own replace the text log entirely.
+ */
+public interface ErrorReport {
+
+    /**
+     * Called before a document is validated.
+     *
+     * @param source the name of the document.
+     */
+    void begin(String source);
+
+    /**
+     * Called for every error, in the order found.
+     *
+     * @param kind   the kind of error.
+     * @param line   the 1-based line of the error.
+     * @param column the 1-based column, or 0 if not known.
+     * @param tag    the offending tag.
+     */
+    void error(ErrorKind kind, int line, int column, String tag);
+
+    /**
+     * Called after a document is validated, to print whatever the report
+     * shows for it.
+     *
+     * @param out      the error log stream.
+     * @param complete false if the validation was stopped before the end of
+     *                 the input, so that the errors are only those found so far.
+     */
+    void end(PrintStream out, boolean complete);
+
+    /**
+     * Returns true if the report writes its own output, in which case the
+     * parser prints none of the text error log around it.
+     *
+     * @return true for machine-readable reports.
+     */
+    default boolean replacesLog() {
+        return false;
+    }
+
+    /**
+     * Called once after the last document, to complete the output.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,174 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import exceptions.EmptyQueueException;
+import implementations.MyQueue;
+
+/**
+ * ErrorStore.java
+ *
+ * @author Team Riju
+ *
+ * The parser's queue of error log lines, kept within a memory budget. Lines
+ * are queued in memory until their estimated size reaches the budget; every
+ * line after that is appended to a temporary file through a memory-mapped
+ * window, and read back through another window when the log is printed, so
+ * a document with millions of errors needs no more heap than the budget.
+ * Lines come out in the order they went in. The file is deleted by clear.
+ *
+ * With no budget nothing is ever written to disk.
+ */
+public class ErrorStore {
+    /** Estimated heap cost of a queued line beyond its characters. */
+    private static final int LINE_OVERHEAD = 64;
+    private static final int WINDOW_SIZE = 1024 * 1024;
+
+    private final MyQueue<String> memory;
+    private long memoryBudget;
+    private long memoryBytes;
+    private FileChannel spill;	// null until the budget is first exceeded
+    private MappedByteBuffer writeWindow;
+    private long writeWindowStart;
+    private MappedByteBuffer readWindow;
+    private long readWindowStart;
+    private long writePosition;	// file offsets of the next record to write and to read
+    private long readPosition;
+
+    public ErrorStore() {
+        memory = new MyQueue<>();
+        memoryBudget = Long.MAX_VALUE;
+    }
+
+    /**
+     * Sets how many bytes of heap queued lines may take before the rest go
+     * to disk.
+     *
+     * @param memoryBudget the budget in bytes, or Long.MAX_VALUE for none.
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns the estimated heap bytes taken by the lines held in memory.
+     */
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Returns true if lines have been written to disk since the last clear.
+     */
+    public boolean hasSpilled() {
+        return spill != null;
+    }
+
+    public void enqueue(String line) {
+        long cost = LINE_OVERHEAD + 2L * line.length();
+        if (spill == null && memoryBytes + cost <= memoryBudget) {
+            memory.enqueue(line);
+            memoryBytes += cost;
+            return;
+        }
+        try {
+            append(line.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot spill errors to disk", e);
+        }
+    }
+
+    public String dequeue() throws EmptyQueueException {
+        if (!memory.isEmpty()) {
+            String line = memory.dequeue();
+            memoryBytes -= LINE_OVERHEAD + 2L * line.length();
+            return line;
+        }
+        if (spill == null || readPosition == writePosition) {
+            throw new EmptyQueueException();
+        }
+        try {
+            return readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled errors", e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return memory.isEmpty() && (spill == null || readPosition == writePosition);
+    }
+
+    /**
+     * Discards every line and deletes the spill file, if any.
+     */
+    public void clear() {
+        memory.dequeueAll();
+        memoryBytes = 0;
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                // The file is deleted on close regardless
+            }
+            spill = null;
+            writeWindow = null;
+            readWindow = null;
+            writePosition = 0;
+            readPosition = 0;
+        }
+    }
+
+    /**
+     * Appends a length-prefixed record, moving the write window on when the
+     * record does not fit in what is left of it.
+     */
+    private void append(byte[] bytes) throws IOException {
+        if (spill == null) {
+            Path file = Files.createTempFile("xmlparser-errors", ".spill");
+            spill = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        int size = 4 + bytes.length;
+        if (writeWindow == null || writePosition + size > writeWindowStart + writeWindow.capacity()) {
+            writeWindowStart = writePosition;
+            writeWindow = spill.map(FileChannel.MapMode.READ_WRITE, writePosition, Math.max(WINDOW_SIZE, size));
+        }
+        writeWindow.position((int) (writePosition - writeWindowStart));
+        writeWindow.putInt(bytes.length);
+        writeWindow.put(bytes);
+        writePosition += size;
+    }
+
+    private String readNext() throws IOException {
+        ensureReadable(readPosition, 4);
+        int length = readWindow.getInt((int) (readPosition - readWindowStart));
+        ensureReadable(readPosition, 4 + length);
+        byte[] bytes = new byte[length];
+        readWindow.position((int) (readPosition - readWindowStart) + 4);
+        readWindow.get(bytes);
+        readPosition += 4 + length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps a new read window at position if the current one does not cover
+     * the given number of bytes from it. Writing has already grown the file
+     * past every record, so the window never reaches beyond its end.
+     */
+    private void ensureReadable(long position, int count) throws IOException {
+        if (readWindow != null && position >= readWindowStart
+                && position + count <= readWindowStart + readWindow.capacity()) {
+            return;
+        }
+        readWindowStart = position;
+        long size = Math.min(Math.max(WINDOW_SIZE, count), spill.size() - position);
+        readWindow = spill.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+}
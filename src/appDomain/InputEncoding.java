@@ -0,0 +1,186 @@
+package appDomain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+
+/**
+ * InputEncoding.java
+ *
+ * @author Team Riju
+ *
+ * Works out the character encoding of a document from its first bytes, as
+ * the XML specification describes: a byte order mark decides it, otherwise
+ * the layout of "<?" tells UTF-16 from the ASCII-compatible encodings, and
+ * for those the encoding pseudo-attribute of the XML declaration names it.
+ * A document with no declaration, or one naming an encoding Java does not
+ * know, is read as UTF-8.
+ *
+ * The scanner works on bytes and only looks for ASCII markup characters, so
+ * any encoding that writes those as single ASCII bytes is scanned as it is;
+ * only the others, such as UTF-16, have to be transcoded first.
+ */
+public final class InputEncoding {
+    private static final int HEAD_LENGTH = 256;	// room for an XML declaration
+    private static final byte[] ENCODING = { 'e', 'n', 'c', 'o', 'd', 'i', 'n', 'g' };
+    private static final String MARKUP = "<>/=?!\"' \t\r\n";
+
+    private InputEncoding() {
+    }
+
+    /**
+     * Identifies the encoding from the first bytes of the input.
+     *
+     * @param head   the leading bytes.
+     * @param length number of valid bytes in head.
+     * @return the encoding to read the input with.
+     */
+    public static Charset detect(byte[] head, int length) {
+        int b0 = length > 0 ? head[0] & 0xff : -1;
+        int b1 = length > 1 ? head[1] & 0xff : -1;
+        int b2 = length > 2 ? head[2] & 0xff : -1;
+        int b3 = length > 3 ? head[3] & 0xff : -1;
+
+        // Byte order marks; the UTF-16 and UTF-32 decoders consume them
+        if (b0 == 0 && b1 == 0 && b2 == 0xfe && b3 == 0xff) {
+            return Charset.forName("UTF-32");
+        }
+        if (b0 == 0xff && b1 == 0xfe && b2 == 0 && b3 == 0) {
+            return Charset.forName("UTF-32");
+        }
+        if ((b0 == 0xfe && b1 == 0xff) || (b0 == 0xff && b1 == 0xfe)) {
+            return StandardCharsets.UTF_16;
+        }
+        if (b0 == 0xef && b1 == 0xbb && b2 == 0xbf) {
+            return StandardCharsets.UTF_8;
+        }
+
+        // "<?" without a byte order mark
+        if (b0 == 0 && b1 == '<' && b2 == 0 && b3 == '?') {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (b0 == '<' && b1 == 0 && b2 == '?' && b3 == 0) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (b0 == '<' && b1 == '?') {
+            return declared(head, length);
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Identifies the encoding of a file without moving the channel's position.
+     *
+     * @param channel an open file.
+     * @return the encoding to read the file with.
+     * @throws IOException if the file cannot be read.
+     */
+    public static Charset detect(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEAD_LENGTH);
+        long position = 0;
+        int n;
+        while (head.hasRemaining() && (n = channel.read(head, position)) != -1) {
+            position += n;
+        }
+        return detect(head.array(), head.position());
+    }
+
+    /**
+     * Identifies the encoding of a channel that cannot seek. The bytes looked
+     * at are consumed from source and replayed by the returned channel, which
+     * must be read instead of source from then on.
+     *
+     * @param source  the input.
+     * @param charset receives the encoding in element 0.
+     * @return a channel yielding the whole input.
+     * @throws IOException if the input cannot be read.
+     */
+    public static ReadableByteChannel detect(ReadableByteChannel source, Charset[] charset) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEAD_LENGTH);
+        while (head.hasRemaining() && source.read(head) != -1) {
+            // read up to the end of a declaration
+        }
+        head.flip();
+        charset[0] = detect(head.array(), head.limit());
+        return new CompressedInput.ReplayChannel(head, source);
+    }
+
+    /**
+     * Returns true if the encoding writes the markup characters the scanner
+     * looks for as the same single bytes as ASCII, so input in it can be
+     * scanned without decoding.
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII)) {
+            return true;
+        }
+        if (!charset.canEncode()) {
+            return false;
+        }
+        byte[] encoded = MARKUP.getBytes(charset);
+        byte[] ascii = MARKUP.getBytes(StandardCharsets.US_ASCII);
+        return Arrays.equals(encoded, ascii);
+    }
+
+    /**
+     * Reads the encoding named in an XML declaration, or UTF-8 if it names
+     * none or one that is not supported.
+     */
+    private static Charset declared(byte[] head, int length) {
+        int end = 0;
+        while (end + 1 < length && !(head[end] == '?' && head[end + 1] == '>')) {
+            end++;
+        }
+        for (int i = 2; i + ENCODING.length < end; i++) {
+            if (!matches(head, i, ENCODING)) {
+                continue;
+            }
+            int k = i + ENCODING.length;
+            while (k < end && isSpace(head[k])) {
+                k++;
+            }
+            if (k == end || head[k] != '=') {
+                continue;
+            }
+            k++;
+            while (k < end && isSpace(head[k])) {
+                k++;
+            }
+            if (k == end || (head[k] != '"' && head[k] != '\'')) {
+                continue;
+            }
+            byte quote = head[k++];
+            int nameStart = k;
+            while (k < end && head[k] != quote) {
+                k++;
+            }
+            String name = new String(head, nameStart, k - nameStart, StandardCharsets.US_ASCII);
+            try {
+                return Charset.forName(name);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                return StandardCharsets.UTF_8;
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static boolean matches(byte[] head, int at, byte[] word) {
+        for (int k = 0; k < word.length; k++) {
+            if (head[at + k] != word[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,417 @@
+package appDomain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JsonConverter.java
+ *
+ * @author Team Riju
+ *
+ * Converts XML to JSON while it is being validated. Each element becomes an
+ * object holding its name, its attributes as fields and its content as an
+ * array of child objects and text strings:
+ *
+ *     <Driver Name="usb"><File>a.sys</File></Driver>
+ *     {"#name":"Driver","@Name":"usb","#content":[{"#name":"File","#content":["a.sys"]}]}
+ *
+ * Whitespace at either end of a text run is dropped, so indentation does not
+ * turn into strings, and the predefined and numeric entities are decoded.
+ * CDATA content is taken as text, literally. Each root element is written as
+ * one line of JSON.
+ *
+ * Output goes through one buffer borrowed from the BufferArena, and only the
+ * path of open elements is kept, so memory use does not depend on the size of
+ * the document.
+ */
+public class JsonConverter implements DocumentListener, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ENTITY = 10;	// longest reference worth decoding, as in "&#x10FFFF;"
+
+    private final ChannelOutput out;
+    private final AttributeTokenizer attributes;
+    private boolean[] hasContent;	// per open element: its content array has been started
+    private int depth;
+    private boolean inString;	// a text string is open in the output
+    private byte[] space;	// whitespace held back until more text follows it
+    private int spaceLen;
+    private final byte[] entity;	// a reference in text that straddles chunks
+    private int entityLen;	// -1 when not inside a reference
+
+    /**
+     * @param channel the destination; it is closed by close.
+     */
+    public JsonConverter(WritableByteChannel channel) {
+        out = new ChannelOutput(channel, BUFFER_SIZE);
+        attributes = new AttributeTokenizer();
+        hasContent = new boolean[32];
+        space = new byte[64];
+        entity = new byte[MAX_ENTITY];
+        startDocument();
+    }
+
+    @Override
+    public void startDocument() {
+        depth = 0;
+        inString = false;
+        spaceLen = 0;
+        entityLen = -1;
+    }
+
+    @Override
+    public void tag(byte[] text, int length, int line, long offset) {
+        flushReference();
+        endText();
+        if (length < 3 || text[1] == '!') {
+            return;
+        }
+
+        if (text[1] == '/') {
+            if (depth > 0) {
+                closeElement();
+            }
+            return;
+        }
+
+        // The name runs up to the first space, '/' or '>'
+        int nameEnd = 1;
+        while (nameEnd < length && !isSpace(text[nameEnd]) && text[nameEnd] != '/' && text[nameEnd] != '>') {
+            nameEnd++;
+        }
+        startItem();
+        out.write("{\"#name\":\"");
+        writeEscaped(text, 1, nameEnd);
+        out.write('"');
+        writeAttributes(text, length);
+
+        if (text[length - 2] == '/') {
+            out.write('}');
+            if (depth == 0) {
+                out.write('\n');
+            }
+        } else {
+            if (++depth == hasContent.length) {
+                boolean[] grown = new boolean[depth * 2];
+                System.arraycopy(hasContent, 0, grown, 0, depth);
+                hasContent = grown;
+            }
+            hasContent[depth] = false;
+        }
+    }
+
+    @Override
+    public void text(ByteBuffer chunk, int from, int to) {
+        if (depth == 0) {
+            return;	// nothing but whitespace and stray text lies outside the root
+        }
+        for (int i = from; i < to; i++) {
+            byte b = chunk.get(i);
+            if (entityLen >= 0) {
+                if (b == ';') {
+                    textReference();
+                    continue;
+                }
+                if (entityLen < MAX_ENTITY && isReferenceByte(b)) {
+                    entity[entityLen++] = b;
+                    continue;
+                }
+                flushReference();	// not a reference after all; b is ordinary text
+            }
+            if (b == '&') {
+                entityLen = 0;
+            } else if (isSpace(b)) {
+                if (inString) {
+                    holdSpace(b);
+                }
+            } else {
+                startText();
+                writeEscaped(b);
+            }
+        }
+    }
+
+    @Override
+    public void cdata(ByteBuffer chunk, int from, int to) {
+        if (depth == 0) {
+            return;
+        }
+        flushReference();
+        for (int i = from; i < to; i++) {
+            byte b = chunk.get(i);
+            if (isSpace(b)) {
+                if (inString) {
+                    holdSpace(b);
+                }
+            } else {
+                startText();
+                writeEscaped(b);
+            }
+        }
+    }
+
+    /**
+     * Closes the elements left open by a document that ended early, so that
+     * every line of output is still valid JSON.
+     */
+    @Override
+    public void endDocument(boolean complete) throws IOException {
+        flushReference();
+        endText();
+        while (depth > 0) {
+            closeElement();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes out what is buffered, releases the buffer and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void closeElement() {
+        if (hasContent[depth]) {
+            out.write(']');
+        }
+        out.write('}');
+        if (--depth == 0) {
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Writes the separator before a child element or text string of the
+     * current element, starting its content array if this is the first.
+     */
+    private void startItem() {
+        if (depth == 0) {
+            return;
+        }
+        if (hasContent[depth]) {
+            out.write(',');
+        } else {
+            out.write(",\"#content\":[");
+            hasContent[depth] = true;
+        }
+    }
+
+    private void writeAttributes(byte[] text, int length) {
+        int count = attributes.tokenize(text, 0, length);
+        for (int k = 0; k < count; k++) {
+            out.write(",\"@");
+            writeEscaped(text, attributes.nameStart(k), attributes.nameEnd(k));
+            out.write("\":\"");
+            writeDecoded(text, attributes.valueStart(k), attributes.valueEnd(k));
+            out.write('"');
+        }
+    }
+
+    /**
+     * Writes an attribute value, decoding the references in it.
+     */
+    private void writeDecoded(byte[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text[i] == '&') {
+                int end = i + 1;
+                while (end < to && end - i <= MAX_ENTITY && text[end] != ';') {
+                    end++;
+                }
+                int codePoint = end < to && text[end] == ';' ? decode(text, i + 1, end - i - 1) : -1;
+                if (codePoint >= 0) {
+                    writeCodePoint(codePoint);
+                    i = end;
+                    continue;
+                }
+            }
+            writeEscaped(text[i]);
+        }
+    }
+
+    /**
+     * Finishes a reference in text at its ';'. One that names no predefined
+     * or numeric reference is written as it was.
+     */
+    private void textReference() {
+        int codePoint = decode(entity, 0, entityLen);
+        if (codePoint >= 0) {
+            startText();
+            writeCodePoint(codePoint);
+            entityLen = -1;
+        } else {
+            flushReference();
+            writeEscaped((byte) ';');
+        }
+    }
+
+    /**
+     * Writes out the '&' and the bytes after it of a reference that turned
+     * out not to be one, as when a byte that cannot be part of a name, a tag
+     * or the end of the document comes before its ';'.
+     */
+    private void flushReference() {
+        if (entityLen < 0) {
+            return;
+        }
+        startText();
+        out.write('&');
+        for (int k = 0; k < entityLen; k++) {
+            writeEscaped(entity[k]);
+        }
+        entityLen = -1;
+    }
+
+    /**
+     * Returns true for the bytes a reference name or number may hold; bytes
+     * of non-ASCII characters are allowed in names.
+     */
+    private static boolean isReferenceByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '#' || b == '_'
+                || b == ':' || b == '-' || b == '.' || b < 0;
+    }
+
+    /**
+     * Returns the character named by the reference between '&' and ';', or -1
+     * if it is not a predefined reference or a numeric one with at least one
+     * digit naming a character that UTF-8 can hold: not 0, not a surrogate
+     * and not above U+10FFFF.
+     */
+    private static int decode(byte[] name, int from, int length) {
+        if (length >= 1 && name[from] == '#') {
+            boolean hex = length >= 2 && name[from + 1] == 'x';
+            int first = from + (hex ? 2 : 1);
+            if (first == from + length) {
+                return -1;	// "&#;" or "&#x;"
+            }
+            int value = 0;
+            for (int k = first; k < from + length; k++) {
+                int digit = Character.digit(name[k], hex ? 16 : 10);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value * (hex ? 16 : 10) + digit;
+                if (value > Character.MAX_CODE_POINT) {
+                    return -1;
+                }
+            }
+            if (value == 0 || (value >= Character.MIN_SURROGATE && value <= Character.MAX_SURROGATE)) {
+                return -1;
+            }
+            return value;
+        }
+        String entityName = new String(name, from, length, StandardCharsets.US_ASCII);
+        switch (entityName) {
+        case "lt":
+            return '<';
+        case "gt":
+            return '>';
+        case "amp":
+            return '&';
+        case "quot":
+            return '"';
+        case "apos":
+            return '\'';
+        default:
+            return -1;
+        }
+    }
+
+    /**
+     * Opens a text string before its first non-blank byte, or writes out the
+     * whitespace held back inside one.
+     */
+    private void startText() {
+        if (!inString) {
+            startItem();
+            out.write('"');
+            inString = true;
+        } else {
+            for (int k = 0; k < spaceLen; k++) {
+                writeEscaped(space[k]);
+            }
+        }
+        spaceLen = 0;
+    }
+
+    /**
+     * Closes the open text string, dropping its trailing whitespace.
+     */
+    private void endText() {
+        if (inString) {
+            out.write('"');
+            inString = false;
+        }
+        spaceLen = 0;
+    }
+
+    private void holdSpace(byte b) {
+        if (spaceLen == space.length) {
+            byte[] grown = new byte[space.length * 2];
+            System.arraycopy(space, 0, grown, 0, spaceLen);
+            space = grown;
+        }
+        space[spaceLen++] = b;
+    }
+
+    private void writeCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            writeEscaped((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            out.write((byte) (0xC0 | codePoint >> 6));
+            out.write((byte) (0x80 | codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            out.write((byte) (0xE0 | codePoint >> 12));
+            out.write((byte) (0x80 | codePoint >> 6 & 0x3F));
+            out.write((byte) (0x80 | codePoint & 0x3F));
+        } else {
+            out.write((byte) (0xF0 | codePoint >> 18));
+            out.write((byte) (0x80 | codePoint >> 12 & 0x3F));
+            out.write((byte) (0x80 | codePoint >> 6 & 0x3F));
+            out.write((byte) (0x80 | codePoint & 0x3F));
+        }
+    }
+
+    private void writeEscaped(byte[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            writeEscaped(text[i]);
+        }
+    }
+
+    /**
+     * Writes one byte inside a JSON string. Bytes of multi-byte UTF-8
+     * characters are copied unchanged.
+     */
+    private void writeEscaped(byte b) {
+        switch (b) {
+        case '"':
+            out.write("\\\"");
+            break;
+        case '\\':
+            out.write("\\\\");
+            break;
+        case '\n':
+            out.write("\\n");
+            break;
+        case '\r':
+            out.write("\\r");
+            break;
+        case '\t':
+            out.write("\\t");
+            break;
+        default:
+            if (b >= 0 && b < 0x20) {
+                out.write(String.format("\\u%04x", b));
+            } else {
+                out.write(b);
+            }
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,56 @@
+package appDomain;
+
+import java.io.PrintStream;
+
+/**
+ * JsonLinesReport.java
+ *
+ * @author Team Riju
+ *
+ * An ErrorReport that writes each error as one JSON object per line the moment
+ * it is found, for example:
+ *
+ *     {"source":"sample2.xml","kind":"error","line":8,"column":0,"message":"Error at line 8","tag":"<b>"}
+ *
+ * Nothing is held in memory, and a consumer can ingest the results while the
+ * validation is still running.
+ */
+public class JsonLinesReport implements ErrorReport {
+    private final PrintStream out;
+    private final StringBuilder record;
+    private String source;
+
+    /**
+     * @param out where the records are written.
+     */
+    public JsonLinesReport(PrintStream out) {
+        this.out = out;
+        this.record = new StringBuilder(256);
+    }
+
+    @Override
+    public void begin(String source) {
+        this.source = source;
+    }
+
+    @Override
+    public void error(ErrorKind kind, int line, int column, String tag) {
+        record.setLength(0);
+        JsonText.quote(record.append("{\"source\":"), source);
+        JsonText.quote(record.append(",\"kind\":"), kind.ruleId());
+        record.append(",\"line\":").append(line).append(",\"column\":").append(column);
+        JsonText.quote(record.append(",\"message\":"), kind.message(line, column));
+        JsonText.quote(record.append(",\"tag\":"), tag).append('}');
+        out.println(record);
+    }
+
+    @Override
+    public void end(PrintStream log, boolean complete) {
+        out.flush();
+    }
+
+    @Override
+    public boolean replacesLog() {
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package appDomain;
+
+/**
+ * JsonText.java
+ *
+ * @author Team Riju
+ *
+ * Helpers for writing JSON by hand. Error messages and tags routinely contain
+ * backslashes (Windows paths in attribute values) and quotes, so every string
+ * value must go through quote.
+ */
+public final class JsonText {
+
+    private JsonText() {
+    }
+
+    /**
+     * Appends text to out as a quoted JSON string.
+     *
+     * @param out  the destination.
+     * @param text the string value.
+     * @return out, for chaining.
+     */
+    public static StringBuilder quote(StringBuilder out, CharSequence text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Returns text as a quoted JSON string.
+     */
+    public static String quote(CharSequence text) {
+        return quote(new StringBuilder(text.length() + 2), text).toString();
+    }
+}
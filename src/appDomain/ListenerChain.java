@@ -0,0 +1,140 @@
+package appDomain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * ListenerChain.java
+ *
+ * @author Team Riju
+ *
+ * Passes every callback to several listeners in turn, so that conversion,
+ * minifying, profiling and splitting can all share one validation pass.
+ * The chain needs UTF-8 input if any of its listeners does.
+ */
+public class ListenerChain implements DocumentListener, Closeable {
+    private DocumentListener[] listeners;
+
+    /**
+     * @param listeners the listeners, called in this order.
+     */
+    public ListenerChain(DocumentListener... listeners) {
+        this.listeners = listeners.clone();
+    }
+
+    /**
+     * Adds a listener to the end of the chain.
+     */
+    public void add(DocumentListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    @Override
+    public void startDocument() {
+        for (DocumentListener listener : listeners) {
+            listener.startDocument();
+        }
+    }
+
+    @Override
+    public void tag(byte[] text, int length, int line, long offset) {
+        for (DocumentListener listener : listeners) {
+            listener.tag(text, length, line, offset);
+        }
+    }
+
+    @Override
+    public void unterminated(byte[] opener, int length, int line, int column) {
+        for (DocumentListener listener : listeners) {
+            listener.unterminated(opener, length, line, column);
+        }
+    }
+
+    @Override
+    public void tooLong(byte[] start, int length, int line, int column) {
+        for (DocumentListener listener : listeners) {
+            listener.tooLong(start, length, line, column);
+        }
+    }
+
+    @Override
+    public void text(ByteBuffer chunk, int from, int to) {
+        for (DocumentListener listener : listeners) {
+            listener.text(chunk, from, to);
+        }
+    }
+
+    @Override
+    public void cdata(ByteBuffer chunk, int from, int to) {
+        for (DocumentListener listener : listeners) {
+            listener.cdata(chunk, from, to);
+        }
+    }
+
+    /**
+     * Ends the document for every listener, even if an earlier one fails.
+     *
+     * @throws IOException the first failure of a listener's output.
+     */
+    @Override
+    public void endDocument(boolean complete) throws IOException {
+        IOException failure = null;
+        for (DocumentListener listener : listeners) {
+            try {
+                listener.endDocument(complete);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void printSummary(PrintStream out) {
+        for (DocumentListener listener : listeners) {
+            listener.printSummary(out);
+        }
+    }
+
+    @Override
+    public boolean needsUtf8() {
+        for (DocumentListener listener : listeners) {
+            if (listener.needsUtf8()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes every listener that is Closeable, even if an earlier one fails.
+     *
+     * @throws IOException the first failure to close.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (DocumentListener listener : listeners) {
+            if (listener instanceof Closeable) {
+                try {
+                    ((Closeable) listener).close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
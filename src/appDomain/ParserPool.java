@@ -0,0 +1,61 @@
+package appDomain;
+
+import implementations.MyStack;
+
+/**
+ * ParserPool.java
+ *
+ * @author Team Riju
+ *
+ * A thread-safe pool of reusable XMLParser instances. A parser's stack, queue
+ * and chunk buffers grow to fit the inputs it has seen; keeping parsers in a
+ * pool keeps those allocations warm between runs, so high-rate validation
+ * does not allocate a new parser per file. Idle parsers are kept on a stack so
+ * the most recently used, and most likely cache-resident, one is handed out
+ * first.
+ */
+public class ParserPool {
+    private final ValidationEngine engine;
+    private final MyStack<XMLParser> idle;
+    private final int maxIdle;
+
+    /**
+     * @param engine  the shared rules every parser in the pool applies.
+     * @param maxIdle the most idle parsers to keep; extra released parsers are dropped.
+     */
+    public ParserPool(ValidationEngine engine, int maxIdle) {
+        this.engine = engine;
+        this.idle = new MyStack<>();
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns an idle parser, or a new one if none is idle.
+     *
+     * @return a parser for the caller's exclusive use until it is released.
+     */
+    public synchronized XMLParser acquire() {
+        return idle.isEmpty() ? new XMLParser(engine, System.out) : idle.pop();
+    }
+
+    /**
+     * Resets a parser and returns it to the pool.
+     *
+     * @param parser a parser obtained from acquire.
+     */
+    public void release(XMLParser parser) {
+        parser.reset();
+        synchronized (this) {
+            if (idle.size() < maxIdle) {
+                idle.push(parser);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle parsers currently held.
+     */
+    public synchronized int idleCount() {
+        return idle.size();
+    }
+}
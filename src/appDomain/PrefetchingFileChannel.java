@@ -0,0 +1,137 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * PrefetchingFileChannel.java
+ *
+ * @author Team Riju
+ *
+ * A file reader backed by an AsynchronousFileChannel with two buffers,
+ * borrowed from the BufferArena until the reader is closed: while the caller
+ * consumes one buffer, the read of the next is already in flight.
+ * On slow or network filesystems this keeps the scanner busy instead of
+ * leaving the CPU idle for the whole of every blocking read.
+ */
+public class PrefetchingFileChannel implements ReadableByteChannel {
+    private final AsynchronousFileChannel file;
+    private final int chunkSize;
+    private ByteBuffer current;	// being consumed by the caller
+    private ByteBuffer pending;	// being filled by the in-flight read
+    private Future<Integer> inFlight;
+    private long nextPosition;
+    private boolean endOfFile;
+
+    /**
+     * Opens the file and starts reading its first chunk.
+     *
+     * @param path      the file to read.
+     * @param chunkSize the size of each of the two buffers.
+     * @throws IOException if the file cannot be opened.
+     */
+    public PrefetchingFileChannel(Path path, int chunkSize) throws IOException {
+        file = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        this.chunkSize = chunkSize;
+        current = BufferArena.shared().acquire(chunkSize);
+        current.limit(0);
+        pending = BufferArena.shared().acquire(chunkSize);
+        startRead();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!current.hasRemaining()) {
+            if (endOfFile) {
+                return -1;
+            }
+            swap();
+            if (!current.hasRemaining()) {
+                return -1;
+            }
+        }
+        int n = Math.min(current.remaining(), dst.remaining());
+        int limit = current.limit();
+        current.limit(current.position() + n);
+        dst.put(current);
+        current.limit(limit);
+        return n;
+    }
+
+    /**
+     * Waits for the in-flight read, makes its buffer current and immediately
+     * starts reading the following chunk into the other buffer.
+     */
+    private void swap() throws IOException {
+        int n = await();
+        ByteBuffer filled = pending;
+        pending = current;
+        current = filled;
+        current.flip();
+        if (n <= 0) {
+            endOfFile = true;
+            return;
+        }
+        nextPosition += n;
+        startRead();
+    }
+
+    private void startRead() {
+        pending.clear();
+        pending.limit(chunkSize);
+        inFlight = file.read(pending, nextPosition);
+    }
+
+    private int await() throws IOException {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a read");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return file.isOpen();
+    }
+
+    /**
+     * Closes the file and returns both buffers to the arena. A read still in
+     * flight may be writing into its buffer whatever its future says, so it
+     * is waited for first; if that wait is interrupted, the buffer is left to
+     * the garbage collector rather than handed out while in use.
+     */
+    @Override
+    public void close() throws IOException {
+        if (current == null) {
+            return;
+        }
+        boolean settled = true;
+        try {
+            inFlight.get();
+        } catch (ExecutionException e) {
+            // A failed read no longer touches its buffer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            settled = false;
+        }
+        file.close();
+        BufferArena.shared().release(current);
+        if (settled) {
+            BufferArena.shared().release(pending);
+        }
+        current = null;
+        pending = null;
+    }
+}
@@ -0,0 +1,95 @@
+package appDomain;
+
+import java.io.PrintStream;
+
+/**
+ * ProgressReporter.java
+ *
+ * @author Team Riju
+ *
+ * A background thread that samples a ValidationProgress once a second and
+ * redraws a one-line status on a terminal stream, normally standard error so
+ * that it never mixes with the error log:
+ *
+ *     sample.xml: 1.2 GB of 5.0 GB (24%), 350000 tags/s, ETA 0:42
+ */
+public class ProgressReporter {
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private final ValidationProgress progress;
+    private final PrintStream out;
+    private final String name;
+    private Thread thread;
+
+    public ProgressReporter(ValidationProgress progress, String name, PrintStream out) {
+        this.progress = progress;
+        this.name = name;
+        this.out = out;
+    }
+
+    public void start() {
+        thread = new Thread(this::run, "xml-progress");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops sampling and prints the final status on its own line.
+     */
+    public void stop() {
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.println("\r" + status());
+        out.flush();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            out.print("\r" + status());
+            out.flush();
+        }
+    }
+
+    private String status() {
+        StringBuilder line = new StringBuilder(name).append(": ").append(size(progress.bytesProcessed()));
+        long total = progress.totalBytes();
+        if (total > 0) {
+            line.append(" of ").append(size(total));
+            line.append(" (").append(progress.bytesProcessed() * 100 / total).append("%)");
+        }
+        line.append(", ").append((long) progress.tagsPerSecond()).append(" tags/s");
+        if (progress.isRunning()) {
+            double eta = progress.etaSeconds();
+            if (eta >= 0) {
+                long seconds = (long) Math.ceil(eta);
+                line.append(String.format(", ETA %d:%02d", seconds / 60, seconds % 60));
+            }
+        } else {
+            line.append(String.format(", done in %.1f s", progress.elapsedSeconds()));
+        }
+        line.append("    ");	// clear leftovers of a longer previous line
+        return line.toString();
+    }
+
+    private static String size(long bytes) {
+        if (bytes >= 1L << 30) {
+            return String.format("%.1f GB", bytes / (double) (1L << 30));
+        }
+        if (bytes >= 1L << 20) {
+            return String.format("%.1f MB", bytes / (double) (1L << 20));
+        }
+        if (bytes >= 1L << 10) {
+            return String.format("%.1f KB", bytes / (double) (1L << 10));
+        }
+        return bytes + " B";
+    }
+}
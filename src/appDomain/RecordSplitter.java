@@ -0,0 +1,229 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RecordSplitter.java
+ *
+ * @author Team Riju
+ *
+ * Splits a document into shards while it is being validated, so that later
+ * jobs can process the shards in parallel. A record is either each child of
+ * the root element, or each outermost element with a given name. Every record
+ * goes whole to the shard holding the fewest bytes so far, and every shard is
+ * wrapped in a copy of the document's prolog and root start tag, so it is a
+ * document of its own.
+ *
+ * The listener only tracks tag offsets; the bytes themselves are copied from
+ * the source file to the shards with FileChannel.transferTo, which lets the
+ * operating system move them without passing through the Java heap. When the
+ * document ends a manifest listing the shards is written next to them.
+ */
+public class RecordSplitter implements DocumentListener {
+    private final FileChannel source;
+    private final Path base;	// shard and manifest names are built from this path
+    private final byte[] element;	// name of the record element, or null for the root's children
+    private final FileChannel[] shards;
+    private final long[] shardBytes;
+    private final long[] shardRecords;
+    private final ByteBuffer newline = ByteBuffer.wrap(new byte[] { '\n' });
+    private int depth;
+    private long rootOffset = -1;
+    private byte[] rootName;
+    private int recordDepth = -1;	// depth of the record being passed over, or -1 between records
+    private long recordStart;
+    private long records;
+
+    /**
+     * @param source  the file being validated; it is not closed.
+     * @param base    the path shard files are named after, as base.shard-0.xml.
+     * @param count   the number of shards.
+     * @param element the name of the record element, or null for the children
+     *                of the root.
+     */
+    public RecordSplitter(FileChannel source, Path base, int count, String element) {
+        this.source = source;
+        this.base = base;
+        this.element = element == null ? null : element.getBytes(StandardCharsets.UTF_8);
+        shards = new FileChannel[count];
+        shardBytes = new long[count];
+        shardRecords = new long[count];
+    }
+
+    /**
+     * Returns the path of the shard manifest.
+     */
+    public Path manifest() {
+        return sibling(".shards.xml");
+    }
+
+    @Override
+    public void tag(byte[] text, int length, int line, long offset) {
+        if (length < 3 || text[1] == '!') {
+            return;
+        }
+        try {
+            if (text[1] == '/') {
+                depth--;
+                if (depth == recordDepth) {
+                    copyRecord(recordStart, offset + length);
+                    recordDepth = -1;
+                }
+                return;
+            }
+
+            boolean selfClosing = text[length - 2] == '/';
+            if (rootOffset < 0) {
+                openShards(text, length, offset);
+            } else if (recordDepth < 0 && isRecord(text, length)) {
+                if (selfClosing) {
+                    copyRecord(offset, offset + length);
+                } else {
+                    recordStart = offset;
+                    recordDepth = depth;
+                }
+            }
+            if (!selfClosing) {
+                depth++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records are copied from the file by offset, so the input must be
+     * scanned in its own encoding.
+     */
+    @Override
+    public boolean needsUtf8() {
+        return false;
+    }
+
+    /**
+     * Closes every shard with the root's end tag and writes the manifest.
+     */
+    @Override
+    public void endDocument(boolean complete) throws IOException {
+        if (rootOffset < 0) {
+            return;	// no root element, so nothing was split
+        }
+        byte[] end = new byte[rootName.length + 4];
+        end[0] = '<';
+        end[1] = '/';
+        System.arraycopy(rootName, 0, end, 2, rootName.length);
+        end[end.length - 2] = '>';
+        end[end.length - 1] = '\n';
+        for (FileChannel shard : shards) {
+            write(shard, ByteBuffer.wrap(end));
+            shard.close();
+        }
+
+        StringBuilder manifest = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        manifest.append("<ShardManifest source=\"").append(escape(base.getFileName().toString()))
+                .append("\" records=\"").append(records)
+                .append("\" complete=\"").append(complete).append("\">\n");
+        for (int k = 0; k < shards.length; k++) {
+            manifest.append("  <Shard file=\"").append(escape(shardPath(k).getFileName().toString()))
+                    .append("\" records=\"").append(shardRecords[k])
+                    .append("\" bytes=\"").append(shardBytes[k]).append("\"/>\n");
+        }
+        manifest.append("</ShardManifest>\n");
+        try (FileChannel out = create(manifest())) {
+            write(out, ByteBuffer.wrap(manifest.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private boolean isRecord(byte[] text, int length) {
+        if (element == null) {
+            return depth == 1;
+        }
+        int nameEnd = 1 + element.length;
+        if (nameEnd >= length) {
+            return false;
+        }
+        for (int k = 0; k < element.length; k++) {
+            if (text[1 + k] != element[k]) {
+                return false;
+            }
+        }
+        byte after = text[nameEnd];
+        return after == '>' || after == '/' || after == ' ' || after == '\t' || after == '\n' || after == '\r';
+    }
+
+    /**
+     * Creates the shards when the root element starts, starting each with the
+     * prolog and the root's start tag.
+     */
+    private void openShards(byte[] text, int length, long offset) throws IOException {
+        rootOffset = offset;
+        int nameEnd = 1;
+        while (nameEnd < length && text[nameEnd] != '>' && text[nameEnd] != '/' && text[nameEnd] > ' ') {
+            nameEnd++;
+        }
+        rootName = new byte[nameEnd - 1];
+        System.arraycopy(text, 1, rootName, 0, rootName.length);
+
+        for (int k = 0; k < shards.length; k++) {
+            shards[k] = create(shardPath(k));
+            transfer(0, offset + length, shards[k]);
+            newline.rewind();
+            write(shards[k], newline);
+        }
+    }
+
+    private void copyRecord(long start, long end) throws IOException {
+        int target = 0;
+        for (int k = 1; k < shards.length; k++) {
+            if (shardBytes[k] < shardBytes[target]) {
+                target = k;
+            }
+        }
+        transfer(start, end - start, shards[target]);
+        newline.rewind();
+        write(shards[target], newline);
+        shardBytes[target] += end - start;
+        shardRecords[target]++;
+        records++;
+    }
+
+    private void transfer(long position, long count, FileChannel target) throws IOException {
+        while (count > 0) {
+            long n = source.transferTo(position, count, target);
+            if (n <= 0) {
+                throw new IOException("Source file ended while copying a record");
+            }
+            position += n;
+            count -= n;
+        }
+    }
+
+    private static void write(FileChannel target, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            target.write(bytes);
+        }
+    }
+
+    private Path shardPath(int k) {
+        return sibling(".shard-" + k + ".xml");
+    }
+
+    private Path sibling(String suffix) {
+        return base.resolveSibling(base.getFileName() + suffix);
+    }
+
+    private static FileChannel create(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;");
+    }
+}
@@ -0,0 +1,93 @@
+package appDomain;
+
+import java.io.PrintStream;
+
+/**
+ * SarifReport.java
+ *
+ * @author Team Riju
+ *
+ * An ErrorReport that writes a SARIF 2.1.0 log, the format code-scanning
+ * dashboards ingest. The log is streamed: the opening of the document is
+ * written before the first result, each result is written as soon as its
+ * error is found, and close writes the closing brackets, so no results are
+ * held in memory.
+ */
+public class SarifReport implements ErrorReport {
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    private final PrintStream out;
+    private final StringBuilder record;
+    private String source;
+    private boolean started;
+    private boolean firstResult;
+
+    /**
+     * @param out where the SARIF log is written.
+     */
+    public SarifReport(PrintStream out) {
+        this.out = out;
+        this.record = new StringBuilder(256);
+    }
+
+    @Override
+    public void begin(String source) {
+        this.source = source;
+        if (!started) {
+            started = true;
+            firstResult = true;
+            writeHeader();
+        }
+    }
+
+    @Override
+    public void error(ErrorKind kind, int line, int column, String tag) {
+        record.setLength(0);
+        record.append(firstResult ? "\n" : ",\n");
+        firstResult = false;
+        JsonText.quote(record.append("{\"ruleId\":"), kind.ruleId());
+        record.append(",\"level\":\"error\",\"message\":{\"text\":");
+        JsonText.quote(record, kind.label() + ": " + tag);
+        JsonText.quote(record.append("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":"), source);
+        record.append("},\"region\":{\"startLine\":").append(line);
+        if (column > 0) {
+            record.append(",\"startColumn\":").append(column);
+        }
+        record.append("}}}]}");
+        out.print(record);
+    }
+
+    @Override
+    public void end(PrintStream log, boolean complete) {
+        out.flush();
+    }
+
+    @Override
+    public boolean replacesLog() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!started) {
+            writeHeader();
+        }
+        out.println("\n]}]}");
+        out.flush();
+    }
+
+    private void writeHeader() {
+        StringBuilder header = new StringBuilder("{\"version\":\"2.1.0\",\"$schema\":\"" + SCHEMA + "\",\"runs\":[{");
+        header.append("\"tool\":{\"driver\":{\"name\":\"XMLParser\",\"rules\":[");
+        ErrorKind[] kinds = ErrorKind.values();
+        for (int i = 0; i < kinds.length; i++) {
+            if (i > 0) {
+                header.append(',');
+            }
+            JsonText.quote(header.append("{\"id\":"), kinds[i].ruleId());
+            JsonText.quote(header.append(",\"shortDescription\":{\"text\":"), kinds[i].label()).append("}}");
+        }
+        header.append("]}},\"results\":[");
+        out.print(header);
+    }
+}
@@ -0,0 +1,117 @@
+package appDomain;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SpscSequencer.java
+ *
+ * @author Team Riju
+ *
+ * Coordinates one producer thread and one consumer thread over a ring of
+ * preallocated slots. The producer waits for a free slot, fills it and
+ * publishes it; the consumer waits for a published slot, reads it and
+ * releases it. Each counter is written by one thread only, so no locks are
+ * needed. Waiting spins briefly, then yields, then parks.
+ */
+public class SpscSequencer {
+    private static final int SPIN_LIMIT = 100;
+    private static final int YIELD_LIMIT = 200;
+    private static final long PARK_NANOS = 20_000L;
+
+    private final int capacity;
+    private final int mask;
+    private volatile long published;	// written by the producer only
+    private volatile long released;	// written by the consumer only
+    private volatile boolean aborted;
+
+    /**
+     * @param capacity number of slots; must be a power of two.
+     */
+    public SpscSequencer(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Clears the counters so the ring can be used for another run. Must only
+     * be called while neither side is active.
+     */
+    public void reset() {
+        published = 0;
+        released = 0;
+        aborted = false;
+    }
+
+    /**
+     * Producer side: waits until the next slot is free and returns its index.
+     *
+     * @return the index of the slot to fill.
+     * @throws CancellationException if the ring was aborted while waiting.
+     */
+    public int awaitFree() {
+        long next = published;
+        int waits = 0;
+        while (next - released >= capacity) {
+            waits = pause(waits);
+        }
+        return (int) (next & mask);
+    }
+
+    /**
+     * Producer side: makes the slot returned by awaitFree visible to the consumer.
+     */
+    public void publish() {
+        published = published + 1;
+    }
+
+    /**
+     * Consumer side: waits until the next slot has been published and returns its index.
+     *
+     * @return the index of the slot to read.
+     * @throws CancellationException if the ring was aborted while waiting.
+     */
+    public int awaitPublished() {
+        long next = released;
+        int waits = 0;
+        while (next >= published) {
+            waits = pause(waits);
+        }
+        return (int) (next & mask);
+    }
+
+    /**
+     * Consumer side: hands the slot returned by awaitPublished back to the producer.
+     */
+    public void release() {
+        released = released + 1;
+    }
+
+    /**
+     * Wakes both sides out of any wait with a CancellationException.
+     */
+    public void abort() {
+        aborted = true;
+    }
+
+    private int pause(int waits) {
+        if (aborted) {
+            throw new CancellationException("Pipeline stage aborted");
+        }
+        if (waits < SPIN_LIMIT) {
+            // busy spin
+        } else if (waits < YIELD_LIMIT) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return waits + 1;
+    }
+}
@@ -0,0 +1,428 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * StructuralDiff.java
+ *
+ * @author Team Riju
+ *
+ * Compares the element structure of two documents, streaming both. Each
+ * document is read by its own TagScanner through a pull adapter that scans a
+ * chunk only when the comparison needs more tags, so the two inputs advance
+ * in lockstep and memory use does not depend on their size. Input that is not
+ * UTF-8 is transcoded to it, as for validation, so documents in different
+ * encodings compare equal when their markup is.
+ *
+ * Tags are matched in order by kind and name, and the attributes of matching
+ * start tags are compared by name regardless of their order; text is
+ * ignored. When the tags differ, up to LOOKAHEAD tags of each side are searched for the
+ * other side's tag, so an inserted or removed element is reported once
+ * instead of throwing off everything after it.
+ */
+public class StructuralDiff {
+    public static final int DEFAULT_MAX_DIFFERENCES = 10;
+    private static final int LOOKAHEAD = 64;
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int EMPTY = 2;
+
+    private final int maxDifferences;
+    private final AttributeTokenizer attributesA = new AttributeTokenizer();
+    private final AttributeTokenizer attributesB = new AttributeTokenizer();
+    private PrintStream out;
+    private String nameA;
+    private String nameB;
+    private int differences;
+
+    /**
+     * @param maxDifferences the number of differences after which to stop.
+     */
+    public StructuralDiff(int maxDifferences) {
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * Compares two documents and prints each difference found, up to the
+     * maximum, with the lines it is on in each document.
+     *
+     * @param nameA the name of the first document, for the report.
+     * @param a     the first document; it is not closed.
+     * @param nameB the name of the second document.
+     * @param b     the second document; it is not closed.
+     * @param out   where the differences are printed.
+     * @return the number of differences printed.
+     * @throws IOException if reading either document fails.
+     */
+    public int compare(String nameA, ReadableByteChannel a, String nameB, ReadableByteChannel b, PrintStream out)
+            throws IOException {
+        this.out = out;
+        this.nameA = nameA;
+        this.nameB = nameB;
+        differences = 0;
+        out.println("Comparing " + nameA + " with " + nameB);
+
+        try (TagPuller left = new TagPuller(utf8(a)); TagPuller right = new TagPuller(utf8(b))) {
+            compare(left, right);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();	// reading one of the inputs failed
+        }
+        return differences;
+    }
+
+    /**
+     * Returns a channel reading source as UTF-8, transcoding it if its
+     * encoding is detected to be another.
+     */
+    private static ReadableByteChannel utf8(ReadableByteChannel source) throws IOException {
+        Charset[] detected = new Charset[1];
+        source = InputEncoding.detect(source, detected);
+        if (detected[0].equals(StandardCharsets.UTF_8)) {
+            return source;
+        }
+        return new TranscodingChannel().open(source, detected[0]);
+    }
+
+    /**
+     * Walks both documents in lockstep until both end or enough differences
+     * were found, then prints a summary.
+     */
+    private void compare(TagPuller left, TagPuller right) {
+        while (differences < maxDifferences) {
+            boolean moreA = left.has(0);
+            boolean moreB = right.has(0);
+            if (!moreA && !moreB) {
+                break;
+            }
+            if (!moreB) {
+                onlyInRest(left, nameA);
+            } else if (!moreA) {
+                onlyInRest(right, nameB);
+            } else if (sameTag(left, 0, right, 0)) {
+                if (left.kind(0) != END) {
+                    compareAttributes(left, right);
+                }
+                left.advance(1);
+                right.advance(1);
+            } else {
+                resynchronize(left, right);
+            }
+        }
+
+        if (differences == 0) {
+            out.println("No structural differences.");
+        } else if (differences >= maxDifferences && (left.has(0) || right.has(0))) {
+            out.println("Stopped after " + differences + " differences.");
+        } else {
+            out.println(differences + (differences == 1 ? " difference found." : " differences found."));
+        }
+    }
+
+    /**
+     * Looks ahead on each side for the other side's current tag. The side
+     * where it is found sooner has extra elements; if it is found on neither,
+     * the two tags are reported as changed and both sides move on.
+     */
+    private void resynchronize(TagPuller left, TagPuller right) {
+        int inRight = find(right, left);
+        int inLeft = find(left, right);
+        if (inRight > 0 && (inLeft < 0 || inRight <= inLeft)) {
+            onlyIn(right, inRight, nameB);
+            right.advance(inRight);
+        } else if (inLeft > 0) {
+            onlyIn(left, inLeft, nameA);
+            left.advance(inLeft);
+        } else {
+            difference(left, right, "<" + describe(left, 0) + "> became <" + describe(right, 0) + ">");
+            left.advance(1);
+            right.advance(1);
+        }
+    }
+
+    /**
+     * Returns the index of the first tag in the lookahead window of side that
+     * matches the current tag of other, or -1.
+     */
+    private static int find(TagPuller side, TagPuller other) {
+        for (int k = 1; k < LOOKAHEAD && side.has(k); k++) {
+            if (sameTag(side, k, other, 0)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean sameTag(TagPuller a, int i, TagPuller b, int j) {
+        if ((a.kind(i) == END) != (b.kind(j) == END)) {
+            return false;
+        }
+        int length = a.nameLength(i);
+        if (length != b.nameLength(j)) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (a.byteAt(i, a.nameStart(i) + k) != b.byteAt(j, b.nameStart(j) + k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void compareAttributes(TagPuller left, TagPuller right) {
+        byte[] a = left.pool();
+        byte[] b = right.pool();
+        int countA = attributesA.tokenize(a, left.start(0), left.start(0) + left.length(0));
+        int countB = attributesB.tokenize(b, right.start(0), right.start(0) + right.length(0));
+        String element = left.name(0);
+        for (int k = 0; k < countA && differences < maxDifferences; k++) {
+            String name = text(a, attributesA.nameStart(k), attributesA.nameEnd(k));
+            int match = attributesB.find(attributesA, k);
+            if (match < 0) {
+                difference(left, right, "attribute " + name + " removed from <" + element + ">");
+            } else if (!regionEquals(a, attributesA.valueStart(k), attributesA.valueEnd(k), b,
+                    attributesB.valueStart(match), attributesB.valueEnd(match))) {
+                difference(left, right, "attribute " + name + " changed from \""
+                        + text(a, attributesA.valueStart(k), attributesA.valueEnd(k)) + "\" to \""
+                        + text(b, attributesB.valueStart(match), attributesB.valueEnd(match)) + "\" in <" + element + ">");
+            }
+        }
+        for (int k = 0; k < countB && differences < maxDifferences; k++) {
+            if (attributesA.find(attributesB, k) < 0) {
+                difference(left, right, "attribute " + text(b, attributesB.nameStart(k), attributesB.nameEnd(k))
+                        + "=\"" + text(b, attributesB.valueStart(k), attributesB.valueEnd(k)) + "\" added to <"
+                        + element + ">");
+            }
+        }
+    }
+
+    private static boolean regionEquals(byte[] a, int fromA, int toA, byte[] b, int fromB, int toB) {
+        if (toA - fromA != toB - fromB) {
+            return false;
+        }
+        for (int k = 0; k < toA - fromA; k++) {
+            if (a[fromA + k] != b[fromB + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(byte[] buf, int from, int to) {
+        return new String(buf, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reports the elements among the first count tags of side, which are
+     * present on that side only. Only the outermost are reported; the tags
+     * inside them and their end tags are passed over.
+     */
+    private void onlyIn(TagPuller side, int count, String name) {
+        int depth = 0;
+        for (int k = 0; k < count; k++) {
+            depth = onlyIn(side, k, depth, name);
+        }
+    }
+
+    /**
+     * Reports the outermost elements left on side after the other document
+     * ended, consuming them.
+     */
+    private void onlyInRest(TagPuller side, String name) {
+        int depth = 0;
+        while (differences < maxDifferences && side.has(0)) {
+            depth = onlyIn(side, 0, depth, name);
+            side.advance(1);
+        }
+    }
+
+    /**
+     * Reports tag k of side if it starts an element at depth 0 of a run of
+     * tags present on that side only, and returns the depth after it.
+     */
+    private int onlyIn(TagPuller side, int k, int depth, String name) {
+        int kind = side.kind(k);
+        if (kind == END) {
+            return Math.max(depth - 1, 0);
+        }
+        if (depth == 0 && differences < maxDifferences) {
+            out.println(name + ":" + side.line(k) + ": element <" + side.name(k) + "> only in " + name);
+            differences++;
+        }
+        return kind == START ? depth + 1 : depth;
+    }
+
+    private void difference(TagPuller left, TagPuller right, String message) {
+        out.println(nameA + ":" + left.line(0) + " " + nameB + ":" + right.line(0) + ": " + message);
+        differences++;
+    }
+
+    private static String describe(TagPuller side, int k) {
+        return (side.kind(k) == END ? "/" : "") + side.name(k);
+    }
+
+    /**
+     * A pull adapter over a TagScanner: tags are kept in a window that is
+     * refilled from the next chunk of input only when the caller looks past
+     * its end, so at most one chunk's tags beyond the lookahead are held.
+     */
+    private static class TagPuller implements TagHandler, AutoCloseable {
+        private final ReadableByteChannel source;
+        private final TagScanner scanner;
+        private final ByteBuffer chunk;
+        private boolean ended;
+        private int[] kinds = new int[256];
+        private int[] lines = new int[256];
+        private int[] starts = new int[256];	// offset of each tag's text in the pool
+        private int[] lengths = new int[256];
+        private byte[] pool = new byte[CHUNK_SIZE];
+        private int poolUsed;
+        private int head;
+        private int tail;
+
+        TagPuller(ReadableByteChannel source) {
+            this.source = source;
+            scanner = new TagScanner(this);
+            chunk = BufferArena.shared().acquire(CHUNK_SIZE);
+        }
+
+        /**
+         * Returns true if there is a tag k places after the current one,
+         * scanning more of the input if needed.
+         */
+        boolean has(int k) {
+            while (tail - head <= k && !ended) {
+                fill();
+            }
+            return tail - head > k;
+        }
+
+        void advance(int n) {
+            head += n;
+        }
+
+        int kind(int k) {
+            return kinds[head + k];
+        }
+
+        int line(int k) {
+            return lines[head + k];
+        }
+
+        byte[] pool() {
+            return pool;
+        }
+
+        int start(int k) {
+            return starts[head + k];
+        }
+
+        byte byteAt(int k, int index) {
+            return pool[starts[head + k] + index];
+        }
+
+        int length(int k) {
+            return lengths[head + k];
+        }
+
+        int nameStart(int k) {
+            return kinds[head + k] == END ? 2 : 1;
+        }
+
+        int nameLength(int k) {
+            int start = nameStart(k);
+            int end = start;
+            int length = lengths[head + k];
+            while (end < length) {
+                byte b = byteAt(k, end);
+                if (b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                    break;
+                }
+                end++;
+            }
+            return end - start;
+        }
+
+        String name(int k) {
+            return new String(pool, starts[head + k] + nameStart(k), nameLength(k), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void tag(byte[] text, int length, int line, long offset) {
+            if (length < 3 || text[1] == '!') {
+                return;
+            }
+            if (tail == kinds.length) {
+                int capacity = tail * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            if (poolUsed + length > pool.length) {
+                pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolUsed + length));
+            }
+            System.arraycopy(text, 0, pool, poolUsed, length);
+            kinds[tail] = text[1] == '/' ? END : text[length - 2] == '/' ? EMPTY : START;
+            lines[tail] = line;
+            starts[tail] = poolUsed;
+            lengths[tail] = length;
+            poolUsed += length;
+            tail++;
+        }
+
+        @Override
+        public void unterminated(byte[] opener, int length, int line, int column) {
+            // Validation reports these; the comparison only looks at tags
+        }
+
+        /**
+         * Drops the tags already passed and scans the next chunk.
+         */
+        private void fill() {
+            if (head > 0) {
+                int keep = tail - head;
+                int poolStart = keep > 0 ? starts[head] : poolUsed;
+                System.arraycopy(pool, poolStart, pool, 0, poolUsed - poolStart);
+                poolUsed -= poolStart;
+                for (int k = 0; k < keep; k++) {
+                    kinds[k] = kinds[head + k];
+                    lines[k] = lines[head + k];
+                    starts[k] = starts[head + k] - poolStart;
+                    lengths[k] = lengths[head + k];
+                }
+                head = 0;
+                tail = keep;
+            }
+
+            chunk.clear();
+            int n = 0;
+            try {
+                while (chunk.hasRemaining() && (n = source.read(chunk)) != -1) {
+                    // fill the chunk
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunk.flip();
+            scanner.feed(chunk);
+            if (n == -1) {
+                scanner.finish();
+                ended = true;
+            }
+        }
+
+        @Override
+        public void close() {
+            BufferArena.shared().release(chunk);
+        }
+    }
+}
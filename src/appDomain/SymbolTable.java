@@ -0,0 +1,165 @@
+package appDomain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * SymbolTable.java
+ *
+ * @author Team Riju
+ *
+ * Maps names, given as byte ranges straight out of the scan buffer, to small
+ * dense integer ids so that per-name data can be kept in primitive arrays
+ * indexed by id. Lookups hash and compare the bytes in place and allocate
+ * nothing; only interning a new name copies it. The table uses open
+ * addressing with linear probing. Once frozen it rejects new names and can
+ * be shared between threads.
+ */
+public class SymbolTable {
+    private int[] table;	// id + 1, or 0 for an empty bucket
+    private int[] hashes;	// by id
+    private byte[][] names;	// by id
+    private int size;
+    private boolean frozen;
+
+    public SymbolTable() {
+        table = new int[64];
+        hashes = new int[16];
+        names = new byte[16][];
+    }
+
+    /**
+     * Creates an unfrozen copy of another table, with the same ids.
+     *
+     * @param other the table to copy.
+     */
+    public SymbolTable(SymbolTable other) {
+        table = other.table.clone();
+        hashes = other.hashes.clone();
+        names = other.names.clone();
+        size = other.size;
+    }
+
+    /**
+     * Returns the id of a name, adding it if it is new.
+     *
+     * @param buf    buffer holding the name.
+     * @param offset index of the first byte of the name.
+     * @param length number of bytes in the name.
+     * @return the name's id.
+     * @throws UnsupportedOperationException if the name is new and the table is frozen.
+     */
+    public int intern(byte[] buf, int offset, int length) {
+        int hash = hash(buf, offset, length);
+        int id = find(buf, offset, length, hash);
+        if (id != -1) {
+            return id;
+        }
+        if (frozen) {
+            throw new UnsupportedOperationException("Symbol table is frozen");
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        id = size++;
+        names[id] = Arrays.copyOfRange(buf, offset, offset + length);
+        hashes[id] = hash;
+
+        // Keep the table at most half full
+        if (size * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        } else {
+            insert(id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a name given as a string, adding it if it is new.
+     */
+    public int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return intern(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Returns the id of a name, or -1 if the table does not hold it.
+     *
+     * @param buf    buffer holding the name.
+     * @param offset index of the first byte of the name.
+     * @param length number of bytes in the name.
+     * @return the name's id, or -1.
+     */
+    public int lookup(byte[] buf, int offset, int length) {
+        return find(buf, offset, length, hash(buf, offset, length));
+    }
+
+    /**
+     * Returns the name with the given id.
+     */
+    public String name(int id) {
+        return new String(names[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of names held; ids run from 0 to size() - 1.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stops the table from taking new names, making it safe to share.
+     *
+     * @return this table.
+     */
+    public SymbolTable freeze() {
+        frozen = true;
+        return this;
+    }
+
+    private int find(byte[] buf, int offset, int length, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && matches(names[id], buf, offset, length)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int slot = hashes[id] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id + 1;
+    }
+
+    private static boolean matches(byte[] name, byte[] buf, int offset, int length) {
+        if (name.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name[i] != buf[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int hash(byte[] buf, int offset, int length) {
+        // FNV-1a
+        int h = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ buf[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
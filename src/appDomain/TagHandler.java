@@ -0,0 +1,73 @@
+package appDomain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TagHandler.java
+ *
+ * @author Team Riju
+ *
+ * Receives the markup found by a TagScanner. The byte arrays passed to these
+ * methods belong to the caller and are only valid for the duration of the call.
+ */
+public interface TagHandler {
+
+    /**
+     * Called for every ordinary tag, from its '<' to its '>' inclusive.
+     *
+     * @param text   buffer holding the tag bytes, starting at index 0.
+     * @param length number of valid bytes in the buffer.
+     * @param line   1-based line on which the tag starts.
+     * @param offset byte offset of the tag's '<' in the input.
+     */
+    void tag(byte[] text, int length, int line, long offset);
+
+    /**
+     * Called at end of input when a comment, CDATA section, processing
+     * instruction, DOCTYPE declaration or tag was opened but never closed.
+     *
+     * @param opener buffer holding the first bytes of the section.
+     * @param length number of valid bytes in the buffer.
+     * @param line   1-based line on which the section starts.
+     * @param column 1-based column of the section's '<'.
+     */
+    void unterminated(byte[] opener, int length, int line, int column);
+
+    /**
+     * Called for a tag longer than the scanner's maximum tag length, which is
+     * skipped up to its '>' instead of being passed to tag. By default it is
+     * ignored.
+     *
+     * @param start  buffer holding the first bytes of the tag.
+     * @param length number of valid bytes in the buffer.
+     * @param line   1-based line on which the tag starts.
+     * @param column 1-based column of the tag's '<'.
+     */
+    default void tooLong(byte[] start, int length, int line, int column) {
+    }
+
+    /**
+     * Called for the character data between tags, if the scanner was asked to
+     * report it. A run of text that straddles chunks arrives in several calls.
+     * Comments and the other skipped sections are not text, and CDATA
+     * sections go to cdata instead. By default text is ignored.
+     *
+     * @param chunk buffer holding the text, to be read with absolute gets only.
+     * @param from  index of the first byte of text.
+     * @param to    index after the last byte of text.
+     */
+    default void text(ByteBuffer chunk, int from, int to) {
+    }
+
+    /**
+     * Called with the content of CDATA sections, without the markup around
+     * it, if the scanner was asked to report text. Like text, the content of
+     * one section may arrive in several calls. By default it is ignored.
+     *
+     * @param chunk buffer holding the content, to be read with absolute gets only.
+     * @param from  index of the first byte.
+     * @param to    index after the last byte.
+     */
+    default void cdata(ByteBuffer chunk, int from, int to) {
+    }
+}
@@ -0,0 +1,442 @@
+package appDomain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TagScanner.java
+ *
+ * @author Team Riju
+ *
+ * A streaming tag tokenizer. The input is fed in chunks of any size and the
+ * scanner keeps its state between chunks, so a tag, comment or CDATA section
+ * may straddle a chunk boundary. Comments, CDATA sections, processing
+ * instructions and DOCTYPE declarations are skipped whole; every other tag is
+ * handed to a TagHandler together with the line it starts on. Lines are
+ * counted as the bytes go past, so the input never has to be split into lines.
+ * A tag is collected into one buffer, which never grows past the maximum tag
+ * length; a longer tag is reported and skipped, so memory stays bounded even
+ * for input with a '<' that is never closed.
+ */
+public class TagScanner {
+    private static final byte[] COMMENT_OPEN = ascii("<!--");
+    private static final byte[] COMMENT_CLOSE = ascii("-->");
+    private static final byte[] CDATA_OPEN = ascii("<![CDATA[");
+    private static final byte[] CDATA_CLOSE = ascii("]]>");
+    private static final byte[] PI_OPEN = ascii("<?");
+    private static final byte[] PI_CLOSE = ascii("?>");
+    private static final byte[] DOCTYPE_OPEN = ascii("<!DOCTYPE");
+    private static final byte[] DOCTYPE_SUBSET_CLOSE = ascii("]>");
+    private static final byte[][] SKIP_OPENERS = { COMMENT_OPEN, CDATA_OPEN, PI_OPEN, DOCTYPE_OPEN };
+
+    private static final int TEXT = 0;
+    private static final int MARKUP = 1;	// after '<', still deciding between a tag and a skip region
+    private static final int TAG = 2;
+    private static final int SKIP = 3;
+    private static final int DOCTYPE = 4;	// skipping a DOCTYPE until '>' or the start of an internal subset
+    private static final int OVERSIZED = 5;	// skipping the rest of a tag longer than the maximum
+
+    /** The longest tag collected unless another maximum is set. */
+    public static final int DEFAULT_MAX_TAG_LENGTH = 1024 * 1024;
+    /** The shortest maximum tag length, which still holds every skip opener. */
+    public static final int MIN_MAX_TAG_LENGTH = 64;
+    private static final int EXCERPT_LENGTH = 64;	// bytes of an unterminated or oversized tag that are reported
+
+    private final TagHandler handler;
+    private int state;
+    private int line;
+    private long position;	// absolute offset of the next byte to be fed
+    private long lineStart;	// absolute offset of the first byte of the current line
+    private boolean lastWasNewline;
+    private byte[] tagBuf;
+    private int tagLen;
+    private int maxTagLength = DEFAULT_MAX_TAG_LENGTH;
+    private int tagLine;
+    private long tagOffset;
+    private int tagColumn;
+    private byte[] terminator;
+    private int prev1;	// the two bytes preceding the current one inside a skip region
+    private int prev2;
+    private long tagCount;
+    private boolean reportText;
+    private final byte[] held = new byte[2];	// CDATA bytes that may yet turn out to be "]]"
+    private final ByteBuffer heldView = ByteBuffer.wrap(held);
+    private int heldLen;
+
+    public TagScanner(TagHandler handler) {
+        this.handler = handler;
+        tagBuf = new byte[256];
+        reset();
+    }
+
+    /**
+     * Returns the scanner to the start of a new document, keeping its buffer.
+     */
+    public void reset() {
+        state = TEXT;
+        line = 1;
+        position = 0;
+        lineStart = 0;
+        lastWasNewline = false;
+        tagLen = 0;
+        terminator = null;
+        tagCount = 0;
+    }
+
+    /**
+     * Selects whether the text between tags and the content of CDATA sections
+     * are passed to the handler. It is off by default, since validation only
+     * looks at tags.
+     *
+     * @param reportText true to call the handler's text method.
+     */
+    public void setReportText(boolean reportText) {
+        this.reportText = reportText;
+    }
+
+    /**
+     * Sets the longest tag, from its '<' to its '>', that is handed to the
+     * handler. A longer tag is reported to the handler's tooLong method and
+     * skipped up to its '>'. The tag buffer never grows past this length.
+     *
+     * @param maxTagLength the maximum in bytes.
+     * @throws IllegalArgumentException if it is below MIN_MAX_TAG_LENGTH.
+     */
+    public void setMaxTagLength(int maxTagLength) {
+        if (maxTagLength < MIN_MAX_TAG_LENGTH) {
+            throw new IllegalArgumentException("Maximum tag length must be at least " + MIN_MAX_TAG_LENGTH + " bytes");
+        }
+        this.maxTagLength = maxTagLength;
+        if (tagBuf.length > maxTagLength) {
+            tagBuf = new byte[maxTagLength];
+            tagLen = 0;
+        }
+    }
+
+    /**
+     * Returns the longest tag handed to the handler.
+     *
+     * @return the maximum in bytes.
+     */
+    public int maxTagLength() {
+        return maxTagLength;
+    }
+
+    /**
+     * Scans the bytes between the chunk's position and limit. The chunk's
+     * position is left unchanged.
+     *
+     * @param chunk the next bytes of the input.
+     */
+    public void feed(ByteBuffer chunk) {
+        int i = chunk.position();
+        int limit = chunk.limit();
+        long base = position - i;
+        while (i < limit) {
+            switch (state) {
+            case TEXT:
+                // Bulk search for the next '<', counting newlines on the way
+                int textStart = i;
+                for (; i < limit; i++) {
+                    byte b = chunk.get(i);
+                    if (b == '<') {
+                        break;
+                    }
+                    if (b == '\n') {
+                        line++;
+                        lineStart = base + i + 1;
+                    }
+                }
+                if (reportText && i > textStart) {
+                    handler.text(chunk, textStart, i);
+                }
+                if (i < limit) {
+                    tagLen = 0;
+                    tagLine = line;
+                    tagOffset = base + i;
+                    tagColumn = (int) (tagOffset - lineStart) + 1;
+                    append((byte) '<');
+                    state = MARKUP;
+                    i++;
+                }
+                break;
+            case MARKUP:
+                i = classify(chunk, i, limit, base);
+                break;
+            case TAG:
+                i = collectTag(chunk, i, limit, base);
+                break;
+            case OVERSIZED:
+                i = skipOversized(chunk, i, limit, base);
+                break;
+            default:
+                i = skip(chunk, i, limit, base);
+                break;
+            }
+        }
+        if (limit > chunk.position()) {
+            lastWasNewline = chunk.get(limit - 1) == '\n';
+        }
+        position = base + limit;
+    }
+
+    /**
+     * Signals the end of the input, reporting any skip region or tag left
+     * open. For a tag, the handler gets its first bytes as the opener; an
+     * oversized tag has already been reported.
+     */
+    public void finish() {
+        if (state == SKIP || state == DOCTYPE) {
+            handler.unterminated(tagBuf, tagLen, tagLine, tagColumn);
+        } else if (state == MARKUP || state == TAG) {
+            handler.unterminated(tagBuf, Math.min(tagLen, EXCERPT_LENGTH), tagLine, tagColumn);
+        }
+        state = TEXT;
+        tagLen = 0;
+    }
+
+    /**
+     * Returns the line holding the last byte fed, which is where problems
+     * detected at end of input are reported.
+     *
+     * @return the 1-based line of the last byte.
+     */
+    public int endLine() {
+        return lastWasNewline ? line - 1 : line;
+    }
+
+    /**
+     * Returns the number of bytes fed since the last reset.
+     *
+     * @return the number of bytes scanned.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of tags handed to the handler since the last reset.
+     *
+     * @return the number of tags scanned.
+     */
+    public long tagCount() {
+        return tagCount;
+    }
+
+    /**
+     * Adds bytes after '<' until it is clear whether the markup opens a skip
+     * region or is an ordinary tag.
+     */
+    private int classify(ByteBuffer chunk, int i, int limit, long base) {
+        while (i < limit) {
+            byte b = chunk.get(i++);
+            append(b);
+            if (b == '\n') {
+                line++;
+                lineStart = base + i;
+            }
+
+            byte[] opener = null;
+            boolean prefix = false;
+            for (byte[] candidate : SKIP_OPENERS) {
+                if (startsWithTag(candidate)) {
+                    if (candidate.length == tagLen) {
+                        opener = candidate;
+                    } else if (candidate.length > tagLen) {
+                        prefix = true;
+                    }
+                }
+            }
+
+            if (opener == PI_OPEN || opener == COMMENT_OPEN || opener == CDATA_OPEN) {
+                terminator = opener == PI_OPEN ? PI_CLOSE : opener == COMMENT_OPEN ? COMMENT_CLOSE : CDATA_CLOSE;
+                prev1 = -1;
+                prev2 = -1;
+                heldLen = 0;
+                state = SKIP;
+                return i;
+            }
+            if (opener == DOCTYPE_OPEN) {
+                state = DOCTYPE;
+                return i;
+            }
+            if (!prefix) {
+                if (b == '>') {
+                    emitTag();
+                } else {
+                    state = TAG;
+                }
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private int collectTag(ByteBuffer chunk, int i, int limit, long base) {
+        while (i < limit) {
+            if (tagLen == maxTagLength) {
+                handler.tooLong(tagBuf, EXCERPT_LENGTH, tagLine, tagColumn);
+                tagLen = 0;
+                state = OVERSIZED;
+                return i;
+            }
+            byte b = chunk.get(i++);
+            append(b);
+            if (b == '>') {
+                emitTag();
+                return i;
+            }
+            if (b == '\n') {
+                line++;
+                lineStart = base + i;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Bulk search for the '>' that ends a tag too long to collect.
+     */
+    private int skipOversized(ByteBuffer chunk, int i, int limit, long base) {
+        for (; i < limit; i++) {
+            byte b = chunk.get(i);
+            if (b == '>') {
+                state = TEXT;
+                return i + 1;
+            }
+            if (b == '\n') {
+                line++;
+                lineStart = base + i + 1;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Bulk search for the end of a skip region. Only the terminator's final
+     * byte is tested on every byte; the bytes before it are checked against
+     * the two preceding bytes, which may have arrived in an earlier chunk.
+     */
+    private int skip(ByteBuffer chunk, int i, int limit, long base) {
+        if (state == DOCTYPE) {
+            for (; i < limit; i++) {
+                byte b = chunk.get(i);
+                if (b == '>') {
+                    state = TEXT;
+                    return i + 1;
+                }
+                if (b == '[') {
+                    // An internal subset holds its own markup, so wait for the closing bracket
+                    terminator = DOCTYPE_SUBSET_CLOSE;
+                    prev1 = -1;
+                    prev2 = -1;
+                    state = SKIP;
+                    return i + 1;
+                }
+                if (b == '\n') {
+                    line++;
+                    lineStart = base + i + 1;
+                }
+            }
+            return i;
+        }
+
+        byte last = terminator[terminator.length - 1];
+        boolean content = reportText && terminator == CDATA_CLOSE;
+        int start = i;
+        for (; i < limit; i++) {
+            byte b = chunk.get(i);
+            if (b == last && terminatorEndsHere()) {
+                if (content) {
+                    emitCdata(chunk, start, i, true);
+                }
+                terminator = null;
+                state = TEXT;
+                return i + 1;
+            }
+            if (b == '\n') {
+                line++;
+                lineStart = base + i + 1;
+            }
+            prev2 = prev1;
+            prev1 = b;
+        }
+        if (content) {
+            emitCdata(chunk, start, i, false);
+        }
+        return i;
+    }
+
+    /**
+     * Reports the CDATA content scanned in this chunk. The last two bytes seen
+     * are always held back, since they are the "]]" of the terminator if the
+     * next byte is '>'; at the end of the section they are dropped.
+     */
+    private void emitCdata(ByteBuffer chunk, int from, int to, boolean end) {
+        int total = heldLen + to - from;
+        int count = total - 2;
+        if (count > 0) {
+            int fromHeld = Math.min(heldLen, count);
+            if (fromHeld > 0) {
+                handler.cdata(heldView, 0, fromHeld);
+            }
+            if (count > fromHeld) {
+                handler.cdata(chunk, from, from + count - fromHeld);
+            }
+        }
+        if (end) {
+            heldLen = 0;
+            return;
+        }
+        // Keep the last two bytes of the held bytes followed by this chunk's
+        int keep = Math.min(2, total);
+        byte held0 = held[0];
+        byte held1 = held[1];
+        int k = 0;
+        for (int n = total - keep; n < total; n++) {
+            held[k++] = n >= heldLen ? chunk.get(from + n - heldLen) : n == 0 ? held0 : held1;
+        }
+        heldLen = keep;
+    }
+
+    private boolean terminatorEndsHere() {
+        switch (terminator.length) {
+        case 3:
+            return prev1 == terminator[1] && prev2 == terminator[0];
+        case 2:
+            return prev1 == terminator[0];
+        default:
+            return true;
+        }
+    }
+
+    private void emitTag() {
+        tagCount++;
+        handler.tag(tagBuf, tagLen, tagLine, tagOffset);
+        tagLen = 0;
+        state = TEXT;
+    }
+
+    private boolean startsWithTag(byte[] candidate) {
+        int n = Math.min(candidate.length, tagLen);
+        for (int k = 0; k < n; k++) {
+            if (tagBuf[k] != candidate[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(byte b) {
+        if (tagLen == tagBuf.length) {
+            byte[] grown = new byte[Math.min(tagBuf.length * 2, maxTagLength)];
+            System.arraycopy(tagBuf, 0, grown, 0, tagLen);
+            tagBuf = grown;
+        }
+        tagBuf[tagLen++] = b;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,153 @@
+package appDomain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TokenRing.java
+ *
+ * @author Team Riju
+ *
+ * A bounded single-producer/single-consumer ring of token records passed from
+ * the tokenizer stage to the validation stage. Each slot is a set of primitive
+ * fields plus a fixed byte array for the token text that is reused from run
+ * to run, so passing a token allocates nothing and the ring never grows. A
+ * tag longer than a slot is passed as PART tokens holding its leading bytes,
+ * followed by a TAG token with the rest, for the validator to join. Runs of
+ * text are simply passed in several tokens.
+ */
+public class TokenRing {
+    public static final int TAG = 0;
+    public static final int UNTERMINATED = 1;
+    public static final int END = 2;
+    public static final int TEXT = 3;
+    public static final int CDATA = 4;
+    public static final int TOO_LONG = 5;
+    public static final int PART = 6;	// leading bytes of the token in the next slot
+
+    /** Bytes of token text per slot. */
+    public static final int SLOT_SIZE = 128;
+
+    private final SpscSequencer sequencer;
+    private final int[] kinds;
+    private final int[] lines;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final byte[][] texts;
+    private final ByteBuffer[] views;	// wrappers of texts
+
+    public TokenRing(int capacity) {
+        sequencer = new SpscSequencer(capacity);
+        kinds = new int[capacity];
+        lines = new int[capacity];
+        offsets = new long[capacity];
+        lengths = new int[capacity];
+        texts = new byte[capacity][];
+        views = new ByteBuffer[capacity];
+        for (int i = 0; i < capacity; i++) {
+            texts[i] = new byte[SLOT_SIZE];
+            views[i] = ByteBuffer.wrap(texts[i]);
+        }
+    }
+
+    public void reset() {
+        sequencer.reset();
+    }
+
+    /**
+     * Tokenizer side: copies a token into the next free slot and publishes it.
+     * A token longer than a slot takes several, the leading ones as PART.
+     *
+     * @param kind   TAG, UNTERMINATED, TOO_LONG or END.
+     * @param text   the token bytes.
+     * @param length number of valid bytes in text.
+     * @param line   the line the token starts on.
+     * @param offset the byte offset of a tag, or the column of an unterminated section.
+     */
+    public void put(int kind, byte[] text, int length, int line, long offset) {
+        int from = 0;
+        for (; length - from > SLOT_SIZE; from += SLOT_SIZE) {
+            int slot = sequencer.awaitFree();
+            System.arraycopy(text, from, texts[slot], 0, SLOT_SIZE);
+            kinds[slot] = PART;
+            lengths[slot] = SLOT_SIZE;
+            sequencer.publish();
+        }
+        length -= from;
+        int slot = sequencer.awaitFree();
+        System.arraycopy(text, from, texts[slot], 0, length);
+        kinds[slot] = kind;
+        lines[slot] = line;
+        offsets[slot] = offset;
+        lengths[slot] = length;
+        sequencer.publish();
+    }
+
+    /**
+     * Tokenizer side: copies a run of text or CDATA content out of a chunk
+     * into as many free slots as it fills, publishing each.
+     *
+     * @param kind  TEXT or CDATA.
+     * @param chunk the buffer holding the text.
+     * @param from  index of the first byte of text.
+     * @param to    index after the last byte of text.
+     */
+    public void putText(int kind, ByteBuffer chunk, int from, int to) {
+        while (from < to) {
+            int slot = sequencer.awaitFree();
+            byte[] text = texts[slot];
+            int length = Math.min(to - from, text.length);
+            for (int i = 0; i < length; i++) {
+                text[i] = chunk.get(from + i);
+            }
+            kinds[slot] = kind;
+            lengths[slot] = length;
+            sequencer.publish();
+            from += length;
+        }
+    }
+
+    /**
+     * Validator side: waits for the next token and returns its slot index.
+     */
+    public int take() {
+        return sequencer.awaitPublished();
+    }
+
+    /**
+     * Validator side: frees the slot returned by take.
+     */
+    public void release() {
+        sequencer.release();
+    }
+
+    public void abort() {
+        sequencer.abort();
+    }
+
+    public int kind(int slot) {
+        return kinds[slot];
+    }
+
+    public int line(int slot) {
+        return lines[slot];
+    }
+
+    public long offset(int slot) {
+        return offsets[slot];
+    }
+
+    public int length(int slot) {
+        return lengths[slot];
+    }
+
+    public byte[] text(int slot) {
+        return texts[slot];
+    }
+
+    /**
+     * Returns the slot's text as a buffer, for handlers that read text from chunks.
+     */
+    public ByteBuffer view(int slot) {
+        return views[slot];
+    }
+}
@@ -0,0 +1,132 @@
+package appDomain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TranscodingChannel.java
+ *
+ * @author Team Riju
+ *
+ * Reads input in any encoding as UTF-8, for the inputs the byte scanner
+ * cannot read as they are, such as UTF-16. Bytes are decoded by a streaming
+ * CharsetDecoder into a CharBuffer and encoded again as they are read, so no
+ * more than one buffer of the input is ever decoded at a time. The buffers
+ * are allocated once and reused for every input opened on the channel.
+ * Malformed input is replaced rather than failing the validation.
+ */
+public class TranscodingChannel implements ReadableByteChannel {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    /** Bytes of buffers a channel holds. */
+    public static final long MEMORY_BYTES = 4L * BUFFER_SIZE;
+
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ReadableByteChannel source;
+    private CharsetDecoder decoder;
+    private boolean inputEnded;
+    private boolean decoded;	// the decoder has been flushed
+    private boolean encoded;	// the encoder has been flushed
+
+    /**
+     * Starts reading a new input, which is not closed by this channel.
+     *
+     * @param source  the input.
+     * @param charset the encoding of the input.
+     * @return this channel.
+     */
+    public TranscodingChannel open(ReadableByteChannel source, Charset charset) {
+        this.source = source;
+        if (decoder == null || !decoder.charset().equals(charset)) {
+            decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        decoder.reset();
+        encoder.reset();
+        in.clear().flip();
+        chars.clear().flip();
+        out.clear().flip();
+        inputEnded = false;
+        decoded = false;
+        encoded = false;
+        return this;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int written = 0;
+        while (dst.hasRemaining()) {
+            if (out.hasRemaining()) {
+                int n = Math.min(out.remaining(), dst.remaining());
+                int limit = out.limit();
+                out.limit(out.position() + n);
+                dst.put(out);
+                out.limit(limit);
+                written += n;
+            } else if (!fill()) {
+                return written > 0 ? written : -1;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Encodes more output into the empty output buffer, decoding and reading
+     * more input as needed.
+     *
+     * @return false once all of the input has been passed on.
+     */
+    private boolean fill() throws IOException {
+        while (true) {
+            out.clear();
+            if (!encoded && encoder.encode(chars, out, decoded).isUnderflow() && decoded) {
+                encoder.flush(out);
+                encoded = true;
+            }
+            out.flip();
+            if (out.hasRemaining()) {
+                return true;
+            }
+            if (decoded) {
+                return false;
+            }
+
+            // Decode more characters, keeping any half of a surrogate pair the encoder left
+            chars.compact();
+            if (!inputEnded) {
+                in.compact();
+                if (source.read(in) == -1) {
+                    inputEnded = true;
+                }
+                in.flip();
+            }
+            CoderResult result = decoder.decode(in, chars, inputEnded);
+            if (inputEnded && result.isUnderflow()) {
+                decoder.flush(chars);
+                decoded = true;
+            }
+            chars.flip();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return source != null && source.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
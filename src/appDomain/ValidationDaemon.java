@@ -0,0 +1,202 @@
+package appDomain;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * ValidationDaemon.java
+ *
+ * @author Team Riju
+ *
+ * Keeps a warmed-up JVM resident so that validating a file does not pay for
+ * JVM startup, class loading and interpretation every time. The daemon listens
+ * on a loopback socket; each connection carries one request of three lines,
+ * the daemon's secret, the file name as the user typed it and its absolute
+ * path, and receives the same error log that a standalone run would print.
+ * Requests are served by a fixed pool of worker threads using parsers from a
+ * ParserPool, so parsers stay resident and warm between requests.
+ *
+ * Any local user can connect to a loopback port, so the daemon writes a
+ * random secret to a file in its owner's home directory that only the owner
+ * may read, and serves only requests that begin with it. Without the check,
+ * any user could have the daemon open files only its owner may read.
+ */
+public class ValidationDaemon {
+    public static final int DEFAULT_PORT = 4738;
+    private static final int SECRET_BYTES = 32;
+    private static final int MAX_LINE = 4096;	// longest request line read
+
+    private final int port;
+    private final ExecutorService workers;
+    private final ParserPool parsers;
+
+    public ValidationDaemon(int port) {
+        this.port = port;
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.parsers = new ParserPool(ValidationEngine.standard(), threads);
+    }
+
+    /**
+     * Accepts requests until the process is stopped.
+     *
+     * @throws IOException if the listening socket cannot be opened.
+     */
+    public void serve() throws IOException {
+        byte[] secret = createSecret(port);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            System.out.println("Validation daemon listening on port " + port);
+            while (true) {
+                SocketChannel client = server.accept();
+                workers.execute(() -> handle(client, secret));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void handle(SocketChannel client, byte[] secret) {
+        try (SocketChannel channel = client) {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String offered = readLine(in);
+            if (offered == null || !MessageDigest.isEqual(secret, offered.getBytes(StandardCharsets.UTF_8))) {
+                return;	// not sent by the daemon's owner
+            }
+            String fileName = readLine(in);
+            String path = readLine(in);
+            if (fileName == null || path == null) {
+                return;
+            }
+
+            PrintStream out = new PrintStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            XMLParser parser = parsers.acquire();
+            try {
+                parser.parseFile(fileName, Paths.get(path), out);
+            } finally {
+                parsers.release(parser);
+            }
+            out.flush();
+        } catch (IOException | EmptyQueueException e) {
+            // The client sees a truncated log; the daemon keeps serving
+        }
+    }
+
+    /**
+     * Reads one line of a request, or returns null at the end of the input or
+     * if the line is longer than any request needs.
+     */
+    private static String readLine(BufferedReader in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (line.length() == MAX_LINE) {
+                return null;
+            }
+            line.append((char) c);
+        }
+        return c == -1 ? null : line.toString();
+    }
+
+    /**
+     * Returns the file holding the secret of the daemon on a port.
+     */
+    static Path secretPath(int port) {
+        return Paths.get(System.getProperty("user.home"), ".xmlparser-daemon-" + port + ".secret");
+    }
+
+    /**
+     * Writes a new random secret to a file only the current user can read,
+     * removed when the daemon exits.
+     */
+    private static byte[] createSecret(int port) throws IOException {
+        byte[] random = new byte[SECRET_BYTES];
+        new SecureRandom().nextBytes(random);
+        StringBuilder hex = new StringBuilder();
+        for (byte b : random) {
+            hex.append(String.format("%02x", b));
+        }
+        byte[] secret = hex.toString().getBytes(StandardCharsets.UTF_8);
+
+        Path path = secretPath(port);
+        Files.deleteIfExists(path);
+        try {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                    EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; restrict the file as far as java.io.File allows
+            Files.createFile(path);
+            File file = path.toFile();
+            file.setReadable(false, false);
+            file.setWritable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+        Files.write(path, secret);
+        path.toFile().deleteOnExit();
+        return secret;
+    }
+
+    /**
+     * Sends one file to a running daemon and copies its error log to standard
+     * output. If no daemon is listening, or its secret cannot be read, the
+     * file is validated in this process.
+     *
+     * @param fileName the file to validate.
+     * @param port     the daemon's port.
+     * @throws EmptyQueueException if the local fallback parse fails.
+     */
+    public static void runClient(String fileName, int port) throws EmptyQueueException {
+        SocketChannel channel;
+        String secret;
+        try {
+            secret = new String(Files.readAllBytes(secretPath(port)), StandardCharsets.UTF_8);
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            new XMLParser().parseFile(fileName);
+            return;
+        }
+
+        try (SocketChannel open = channel) {
+            String request = secret + "\n" + fileName + "\n" + Paths.get(fileName).toAbsolutePath() + "\n";
+            OutputStream out = Channels.newOutputStream(open);
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            InputStream in = Channels.newInputStream(open);
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                System.out.write(buffer, 0, n);
+            }
+            System.out.flush();
+        } catch (IOException e) {
+            System.out.println("Lost connection to validation daemon: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package appDomain;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ValidationEngine.java
+ *
+ * @author Team Riju
+ *
+ * The immutable half of the parser: the tag rules, compiled once into byte
+ * patterns and a frozen symbol table. An engine holds no per-document state,
+ * so a single instance can be shared by any number of XMLParser instances
+ * validating concurrently, without locks and without repeating the setup.
+ * The rules run on the tag bytes in the scan buffer; a String is only made
+ * for a tag that is actually reported.
+ */
+public final class ValidationEngine {
+    private static final ValidationEngine STANDARD = new ValidationEngine();
+
+    private final SymbolTable symbols;
+    private final boolean[] banned;	// by symbol id: tags not allowed at all, such as <b> and <i>
+    private final byte[] selfClosingName;	// tags mentioning this must be self-closing
+
+    private ValidationEngine() {
+        SymbolTable table = new SymbolTable();
+        int b = table.intern("b");
+        int i = table.intern("i");
+        table.intern("PackageCreationLocation");
+        symbols = table.freeze();
+
+        banned = new boolean[symbols.size()];
+        banned[b] = true;
+        banned[i] = true;
+        selfClosingName = "PackageCreationLocation".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the engine with the standard tag rules.
+     */
+    public static ValidationEngine standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Returns the engine's frozen symbol table, which holds every tag name
+     * the rules refer to.
+     */
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    /**
+     * Applies the tag rules to one tag.
+     *
+     * @param text   buffer holding the tag, from '<' to '>' inclusive.
+     * @param length number of bytes in the tag.
+     * @return the kind of error the tag has, or null if it passes.
+     */
+    public ErrorKind check(byte[] text, int length) {
+        // A tag ends at its first '>', so a doubled closing bracket can only be at the end
+        if (length >= 3 && text[length - 2] == '>') {
+            return ErrorKind.INVALID_CLOSE;
+        }
+
+        // Tags that are not allowed at all, such as <b> and <i>
+        if (length >= 3) {
+            int id = symbols.lookup(text, 1, length - 2);
+            if (id != -1 && banned[id]) {
+                return ErrorKind.ERROR;
+            }
+        }
+
+        // PackageCreationLocation tags with missing closure
+        if (contains(text, length, selfClosingName) && !(length >= 2 && text[length - 2] == '/')) {
+            return ErrorKind.ERROR;
+        }
+
+        return null;
+    }
+
+    private static boolean contains(byte[] text, int length, byte[] pattern) {
+        byte first = pattern[0];
+        int last = length - pattern.length;
+        for (int i = 0; i <= last; i++) {
+            if (text[i] != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < pattern.length && text[i + k] == pattern[k]) {
+                k++;
+            }
+            if (k == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,301 @@
+package appDomain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CancellationException;
+
+/**
+ * ValidationPipeline.java
+ *
+ * @author Team Riju
+ *
+ * Runs a parse as three overlapping stages, each on its own thread:
+ * - the reader fills pooled buffers from the input channel,
+ * - the tokenizer runs a TagScanner over each buffer and emits token records,
+ * - the validator (the calling thread) hands each token to a TagHandler.
+ *
+ * The stages are connected by bounded single-producer/single-consumer rings,
+ * so disk reads, tokenizing and validation proceed in parallel while memory
+ * stays fixed regardless of the size of the input. A pipeline can be run any
+ * number of times, but by one caller at a time.
+ */
+public class ValidationPipeline {
+    public static final int CHUNK_SIZE = 64 * 1024;
+    /** Returned by run when the cancellation token stopped the parse. */
+    public static final int CANCELLED = -1;
+    private static final int CHUNK_COUNT = 4;
+    private static final int TOKEN_COUNT = 1024;
+    /**
+     * Bytes of heap a pipeline holds in its token ring. The scanner's tag
+     * buffer and the buffer that joins tags longer than a token slot come on
+     * top, each at most the maximum tag length. The read buffers are direct
+     * buffers borrowed from the BufferArena, outside the heap.
+     */
+    public static final long HEAP_BYTES = (long) TOKEN_COUNT * TokenRing.SLOT_SIZE;
+    private static final byte[] NO_TEXT = {};
+
+    private final TagHandler validator;
+    private final ChunkRing chunks;
+    private final TokenRing tokens;
+    private final TagScanner scanner;
+    private byte[] joined;	// a tag that arrived in several token slots, created on first use
+    private int joinedLength;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+
+    /**
+     * @param validator receives every token, on the thread that calls run.
+     */
+    public ValidationPipeline(TagHandler validator) {
+        this.validator = validator;
+        chunks = new ChunkRing(CHUNK_COUNT, CHUNK_SIZE);
+        tokens = new TokenRing(TOKEN_COUNT);
+        scanner = new TagScanner(new TokenForwarder());
+    }
+
+    /**
+     * Selects whether the text between tags and the content of CDATA
+     * sections are passed on to the validator.
+     * Text is copied through the token ring, so leave this off unless the
+     * validator uses it.
+     *
+     * @param reportText true to pass text on.
+     */
+    public void setReportText(boolean reportText) {
+        scanner.setReportText(reportText);
+    }
+
+    /**
+     * Sets the longest tag passed on to the validator; see
+     * TagScanner.setMaxTagLength.
+     *
+     * @param maxTagLength the maximum in bytes.
+     */
+    public void setMaxTagLength(int maxTagLength) {
+        scanner.setMaxTagLength(maxTagLength);
+        if (joined != null && joined.length > maxTagLength) {
+            joined = null;
+        }
+    }
+
+    /**
+     * Validates everything readable from the channel. The channel is not closed.
+     * The reader stage polls the token before every chunk; once it is
+     * cancelled all stages stop and the tokens already validated stand.
+     *
+     * @param source   the input.
+     * @param token    stops the parse early when cancelled.
+     * @param progress receives the bytes and tags scanned after every chunk.
+     * @return the line of the last byte read, for reporting end-of-input
+     *         problems, or CANCELLED if the parse was stopped early.
+     * @throws IOException if reading the input fails.
+     */
+    public int run(ReadableByteChannel source, CancellationToken token, ValidationProgress progress) throws IOException {
+        BufferArena arena = BufferArena.shared();
+        chunks.open(arena);
+        tokens.reset();
+        scanner.reset();
+        joinedLength = 0;
+        failure = null;
+        cancelled = false;
+
+        Thread reader = new Thread(() -> read(source, token), "xml-reader");
+        Thread tokenizer = new Thread(() -> tokenize(progress), "xml-tokenizer");
+        reader.setDaemon(true);
+        tokenizer.setDaemon(true);
+        reader.start();
+        tokenizer.start();
+
+        int endLine = 0;
+        try {
+            endLine = validate();
+        } catch (CancellationException e) {
+            // An upstream stage failed; its cause is rethrown below
+        } finally {
+            chunks.abort();
+            tokens.abort();
+            join(reader);
+            join(tokenizer);
+            chunks.close(arena);
+        }
+
+        Throwable cause = failure;
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cancelled ? CANCELLED : endLine;
+    }
+
+    private void read(ReadableByteChannel source, CancellationToken token) {
+        try {
+            while (true) {
+                if (token.isCancelled()) {
+                    cancelled = true;
+                    chunks.abort();
+                    tokens.abort();
+                    return;
+                }
+                ByteBuffer buffer = chunks.claim();
+                int n = 0;
+                while (buffer.hasRemaining() && (n = source.read(buffer)) != -1) {
+                    // keep filling until the buffer is full or the input ends
+                }
+                buffer.flip();
+                boolean end = n == -1;
+                if (buffer.hasRemaining()) {
+                    chunks.publish();
+                    if (!end) {
+                        continue;
+                    }
+                    buffer = chunks.claim();
+                    buffer.flip();
+                }
+                // An empty chunk marks the end of the input
+                chunks.publish();
+                return;
+            }
+        } catch (CancellationException e) {
+            // Downstream stopped early
+        } catch (IOException | RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    private void tokenize(ValidationProgress progress) {
+        try {
+            while (true) {
+                ByteBuffer buffer = chunks.take();
+                boolean end = !buffer.hasRemaining();
+                scanner.feed(buffer);
+                chunks.release();
+                progress.update(scanner.position(), scanner.tagCount());
+                if (end) {
+                    break;
+                }
+            }
+            scanner.finish();
+            tokens.put(TokenRing.END, NO_TEXT, 0, scanner.endLine(), scanner.position());
+        } catch (CancellationException e) {
+            // Another stage stopped early
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    private int validate() {
+        while (true) {
+            int slot = tokens.take();
+            int kind = tokens.kind(slot);
+            byte[] text = tokens.text(slot);
+            int length = tokens.length(slot);
+            if (kind == TokenRing.PART || joinedLength > 0) {
+                join(text, length);
+                if (kind == TokenRing.PART) {
+                    tokens.release();
+                    continue;
+                }
+                text = joined;
+                length = joinedLength;
+                joinedLength = 0;
+            }
+            switch (kind) {
+            case TokenRing.TAG:
+                validator.tag(text, length, tokens.line(slot), tokens.offset(slot));
+                break;
+            case TokenRing.UNTERMINATED:
+                validator.unterminated(text, length, tokens.line(slot), (int) tokens.offset(slot));
+                break;
+            case TokenRing.TOO_LONG:
+                validator.tooLong(text, length, tokens.line(slot), (int) tokens.offset(slot));
+                break;
+            case TokenRing.TEXT:
+                validator.text(tokens.view(slot), 0, tokens.length(slot));
+                break;
+            case TokenRing.CDATA:
+                validator.cdata(tokens.view(slot), 0, tokens.length(slot));
+                break;
+            default:
+                int endLine = tokens.line(slot);
+                tokens.release();
+                return endLine;
+            }
+            tokens.release();
+        }
+    }
+
+    /**
+     * Appends the bytes of one slot to the tag being joined. The scanner's
+     * maximum tag length bounds how far the buffer grows.
+     */
+    private void join(byte[] text, int length) {
+        if (joined == null || joinedLength + length > joined.length) {
+            int doubled = joined == null ? 4 * TokenRing.SLOT_SIZE : 2 * joined.length;
+            byte[] grown = new byte[Math.max(joinedLength + length, Math.min(doubled, scanner.maxTagLength()))];
+            if (joined != null) {
+                System.arraycopy(joined, 0, grown, 0, joinedLength);
+            }
+            joined = grown;
+        }
+        System.arraycopy(text, 0, joined, joinedLength, length);
+        joinedLength += length;
+    }
+
+    private void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+        chunks.abort();
+        tokens.abort();
+    }
+
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The tokenizer stage's handler: copies each token into the token ring.
+     */
+    private class TokenForwarder implements TagHandler {
+        @Override
+        public void tag(byte[] text, int length, int line, long offset) {
+            tokens.put(TokenRing.TAG, text, length, line, offset);
+        }
+
+        @Override
+        public void unterminated(byte[] opener, int length, int line, int column) {
+            tokens.put(TokenRing.UNTERMINATED, opener, length, line, column);
+        }
+
+        @Override
+        public void tooLong(byte[] start, int length, int line, int column) {
+            tokens.put(TokenRing.TOO_LONG, start, length, line, column);
+        }
+
+        @Override
+        public void text(ByteBuffer chunk, int from, int to) {
+            tokens.putText(TokenRing.TEXT, chunk, from, to);
+        }
+
+        @Override
+        public void cdata(ByteBuffer chunk, int from, int to) {
+            tokens.putText(TokenRing.CDATA, chunk, from, to);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package appDomain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ValidationProgress.java
+ *
+ * @author Team Riju
+ *
+ * Live counters for a validation in progress. The scanning thread publishes
+ * the bytes and tags processed after every chunk with ordered stores, and any
+ * other thread may sample them at any time without locking, for example to
+ * show progress or to tell a slow validation from a hung one.
+ */
+public class ValidationProgress {
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong tags = new AtomicLong();
+    private volatile long totalBytes = -1;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * Called by the parser when a document starts.
+     *
+     * @param totalBytes the document size, or -1 if unknown.
+     */
+    void start(long totalBytes) {
+        bytes.set(0);
+        tags.set(0);
+        this.totalBytes = totalBytes;
+        endNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Called by the scanning thread after each chunk.
+     */
+    void update(long bytesProcessed, long tagsProcessed) {
+        bytes.lazySet(bytesProcessed);
+        tags.lazySet(tagsProcessed);
+    }
+
+    /**
+     * Called by the parser when a document is finished or stopped.
+     */
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public long bytesProcessed() {
+        return bytes.get();
+    }
+
+    public long tagsProcessed() {
+        return tags.get();
+    }
+
+    /**
+     * Returns the size of the document, or -1 if it is not known, as for
+     * standard input or compressed files.
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public boolean isRunning() {
+        return startNanos != 0 && endNanos == 0;
+    }
+
+    /**
+     * Returns the time since the document started, or its total time once finished.
+     */
+    public double elapsedSeconds() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = endNanos;
+        return ((end == 0 ? System.nanoTime() : end) - start) / 1e9;
+    }
+
+    public double bytesPerSecond() {
+        double elapsed = elapsedSeconds();
+        return elapsed > 0 ? bytesProcessed() / elapsed : 0;
+    }
+
+    public double tagsPerSecond() {
+        double elapsed = elapsedSeconds();
+        return elapsed > 0 ? tagsProcessed() / elapsed : 0;
+    }
+
+    /**
+     * Returns the estimated seconds remaining at the average rate so far, or
+     * -1 if the total size or the rate is not yet known.
+     */
+    public double etaSeconds() {
+        long total = totalBytes;
+        double rate = bytesPerSecond();
+        if (total < 0 || rate <= 0) {
+            return -1;
+        }
+        return Math.max(0, total - bytesProcessed()) / rate;
+    }
+}
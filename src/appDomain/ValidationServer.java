@@ -0,0 +1,217 @@
+package appDomain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * ValidationServer.java
+ *
+ * @author Team Riju
+ *
+ * An embedded HTTP endpoint for validation. POST an XML document to /validate
+ * and the error log comes back as JSON:
+ *
+ *     {"valid":false,"complete":true,"errors":[{"message":"Error at line 8","tag":"<b>"}]}
+ *
+ * Each request has a deadline, 30 seconds unless the timeoutMs query
+ * parameter asks for less. A request that runs out of time is answered
+ * with the errors found so far and "complete":false, so one pathological
+ * upload cannot tie up a worker indefinitely. If the body stops arriving,
+ * the read cannot notice the deadline; the connection is then dropped
+ * shortly after it, without an answer.
+ *
+ * The request body is streamed into the scanner rather than buffered whole.
+ * Requests are served from a ParserPool sized to the worker threads, so the
+ * parsers' stacks, queues and buffers are reused from one request to the next
+ * instead of being allocated per request.
+ */
+public class ValidationServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000L;
+
+    private final int port;
+    private final int threads;
+    private final ParserPool parsers;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ValidationServer(int port) {
+        this.port = port;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.parsers = new ParserPool(ValidationEngine.standard(), threads);
+    }
+
+    /**
+     * Starts serving on the loopback interface and returns.
+     *
+     * @throws IOException if the port cannot be bound.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/validate", this::handle);
+        server.start();
+        System.out.println("Validation server listening on http://localhost:" + port + "/validate");
+    }
+
+    /**
+     * Stops accepting requests, drops those in progress and ends the worker
+     * threads.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "{\"error\":\"POST an XML document\"}");
+                return;
+            }
+
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            long sizeHint = length == null ? -1 : Long.parseLong(length);
+
+            CancellationToken token = CancellationToken.withTimeout(timeoutMillis(exchange.getRequestURI().getQuery()));
+            XMLParser parser = parsers.acquire();
+            RequestBody body = new RequestBody(exchange);
+            String json;
+            boolean complete;
+            try {
+                complete = parser.validate(body, sizeHint, token);
+                json = toJson(parser, complete);
+            } finally {
+                parsers.release(parser);
+            }
+            if (!body.answer()) {
+                return;	// the token dropped the connection under a blocked read
+            }
+            if (!complete) {
+                // The rest of the body is left unread, so the connection cannot be reused
+                exchange.getResponseHeaders().set("Connection", "close");
+            }
+            respond(exchange, 200, json);
+        } catch (IOException | IllegalArgumentException e) {
+            respond(exchange, 400, "{\"error\":" + JsonText.quote(String.valueOf(e.getMessage())) + "}");
+        } catch (EmptyQueueException e) {
+            respond(exchange, 500, "{\"error\":\"incomplete error log\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Returns the deadline a request asks for, which may be shorter than the
+     * default but not longer.
+     *
+     * @throws IllegalArgumentException if timeoutMs is not a positive whole number.
+     */
+    private static long timeoutMillis(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("timeoutMs=")) {
+                    long timeout;
+                    try {
+                        timeout = Long.parseLong(parameter.substring("timeoutMs=".length()));
+                    } catch (NumberFormatException e) {
+                        timeout = 0;
+                    }
+                    if (timeout <= 0) {
+                        throw new IllegalArgumentException("timeoutMs must be a positive whole number of milliseconds");
+                    }
+                    return Math.min(timeout, DEFAULT_TIMEOUT_MILLIS);
+                }
+            }
+        }
+        return DEFAULT_TIMEOUT_MILLIS;
+    }
+
+    private static String toJson(XMLParser parser, boolean complete) throws EmptyQueueException {
+        StringBuilder json = new StringBuilder("{\"valid\":").append(complete && !parser.hasErrors());
+        json.append(",\"complete\":").append(complete).append(",\"errors\":[");
+        boolean first = true;
+        while (parser.hasErrors()) {
+            String message = parser.nextError();
+            String tag = parser.hasErrors() ? parser.nextError() : "";
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            JsonText.quote(json.append("{\"message\":"), message);
+            JsonText.quote(json.append(",\"tag\":"), tag).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * The request body as a channel. The parser closes it when a read is
+     * still blocked after the deadline; closing the body stream itself
+     * would wait to drain the rest, so closing this drops the connection
+     * instead, unless the answer has been started.
+     */
+    private static class RequestBody implements ReadableByteChannel {
+        private final HttpExchange exchange;
+        private final ReadableByteChannel in;
+        private final AtomicBoolean settled = new AtomicBoolean();	// answered, or dropped
+
+        RequestBody(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.in = Channels.newChannel(exchange.getRequestBody());
+        }
+
+        /**
+         * Claims the exchange for the answer.
+         *
+         * @return false if the connection has already been dropped.
+         */
+        boolean answer() {
+            return settled.compareAndSet(false, true);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return in.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return in.isOpen();
+        }
+
+        @Override
+        public void close() {
+            if (settled.compareAndSet(false, true)) {
+                exchange.close();	// no response started, so this closes the connection
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
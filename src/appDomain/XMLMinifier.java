@@ -0,0 +1,242 @@
+package appDomain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * XMLMinifier.java
+ *
+ * @author Team Riju
+ *
+ * Re-emits a document in a compact canonical form while it is being validated:
+ * - text that is only whitespace, such as indentation, is removed; text with
+ *   any other character is kept exactly, including its spaces,
+ * - tags lose the spaces inside them, attributes are sorted by name with
+ *   namespace declarations first, and values are always double-quoted,
+ * - the XML declaration is replaced by a standard one, and comments,
+ *   processing instructions and the DOCTYPE are dropped,
+ * - CDATA sections become escaped text.
+ *
+ * Output goes through one reusable buffer, and no state is kept beyond the
+ * current tag, so memory use does not depend on the size of the document.
+ */
+public class XMLMinifier implements DocumentListener, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final byte[] XMLNS = { 'x', 'm', 'l', 'n', 's' };
+
+    private final ChannelOutput out;
+    private byte[] space;	// whitespace held back until the text turns out to be more than that
+    private int spaceLen;
+    private boolean inText;	// the current text run has a non-blank byte
+    private boolean started;	// a tag has been seen; bytes before the first, such as a byte order mark, are dropped
+    private final AttributeTokenizer attributes;
+    private int[] order;	// attribute indexes in canonical order
+
+    /**
+     * @param channel the destination; it is closed by close.
+     */
+    public XMLMinifier(WritableByteChannel channel) {
+        out = new ChannelOutput(channel, BUFFER_SIZE);
+        space = new byte[256];
+        attributes = new AttributeTokenizer();
+        order = new int[8];
+    }
+
+    @Override
+    public void startDocument() {
+        spaceLen = 0;
+        inText = false;
+        started = false;
+        out.write(DECLARATION);
+    }
+
+    @Override
+    public void tag(byte[] text, int length, int line, long offset) {
+        started = true;
+        spaceLen = 0;
+        inText = false;
+        if (length < 3 || text[1] == '!') {
+            out.write(text, 0, length);
+            return;
+        }
+
+        boolean end = text[1] == '/';
+        int nameEnd = end ? 2 : 1;
+        while (nameEnd < length && !isSpace(text[nameEnd]) && text[nameEnd] != '/' && text[nameEnd] != '>') {
+            nameEnd++;
+        }
+        if (end) {
+            out.write(text, 0, nameEnd);
+            out.write('>');
+            return;
+        }
+
+        out.write(text, 0, nameEnd);
+        int count = attributes.tokenize(text, 0, length);
+        sortAttributes(text, count);
+        for (int k = 0; k < count; k++) {
+            int a = order[k];
+            out.write(' ');
+            out.write(text, attributes.nameStart(a), attributes.nameEnd(a));
+            out.write("=\"");
+            writeValue(text, attributes.valueStart(a), attributes.valueEnd(a));
+            out.write('"');
+        }
+
+        // A malformed attribute stops the tokenizer; the rest of the tag is kept as it was
+        int close = text[length - 2] == '/' ? length - 2 : length - 1;
+        int rest = attributes.end();
+        if (rest < close) {
+            int restEnd = close;
+            while (isSpace(text[restEnd - 1])) {
+                restEnd--;
+            }
+            out.write(' ');
+            out.write(text, rest, restEnd);
+        }
+        out.write(close == length - 2 ? "/>" : ">");
+    }
+
+    @Override
+    public void text(ByteBuffer chunk, int from, int to) {
+        if (!started) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            byte b = chunk.get(i);
+            if (inText) {
+                out.write(b);
+            } else if (isSpace(b)) {
+                holdSpace(b);
+            } else {
+                startText();
+                out.write(b);
+            }
+        }
+    }
+
+    @Override
+    public void cdata(ByteBuffer chunk, int from, int to) {
+        startText();
+        for (int i = from; i < to; i++) {
+            byte b = chunk.get(i);
+            if (b == '&') {
+                out.write("&amp;");
+            } else if (b == '<') {
+                out.write("&lt;");
+            } else if (b == '>') {
+                out.write("&gt;");
+            } else {
+                out.write(b);
+            }
+        }
+    }
+
+    @Override
+    public void endDocument(boolean complete) throws IOException {
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Writes out what is buffered, releases the buffer and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Marks the current text run as significant, writing out the whitespace
+     * held back at its start.
+     */
+    private void startText() {
+        out.write(space, 0, spaceLen);
+        spaceLen = 0;
+        inText = true;
+    }
+
+    private void holdSpace(byte b) {
+        if (spaceLen == space.length) {
+            byte[] grown = new byte[space.length * 2];
+            System.arraycopy(space, 0, grown, 0, spaceLen);
+            space = grown;
+        }
+        space[spaceLen++] = b;
+    }
+
+    /**
+     * Insertion sort of the attribute order; tags rarely have more than a few.
+     */
+    private void sortAttributes(byte[] text, int count) {
+        if (order.length < count) {
+            order = new int[Math.max(count, order.length * 2)];
+        }
+        for (int k = 0; k < count; k++) {
+            int a = k;
+            int j = k;
+            while (j > 0 && compare(text, a, order[j - 1]) < 0) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = a;
+        }
+    }
+
+    private int compare(byte[] text, int a, int b) {
+        boolean nsA = isNamespace(text, a);
+        boolean nsB = isNamespace(text, b);
+        if (nsA != nsB) {
+            return nsA ? -1 : 1;
+        }
+        int fromA = attributes.nameStart(a);
+        int fromB = attributes.nameStart(b);
+        int lengthA = attributes.nameEnd(a) - fromA;
+        int lengthB = attributes.nameEnd(b) - fromB;
+        for (int k = 0; k < Math.min(lengthA, lengthB); k++) {
+            int diff = (text[fromA + k] & 0xFF) - (text[fromB + k] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private boolean isNamespace(byte[] text, int a) {
+        int from = attributes.nameStart(a);
+        int length = attributes.nameEnd(a) - from;
+        if (length < XMLNS.length || (length > XMLNS.length && text[from + XMLNS.length] != ':')) {
+            return false;
+        }
+        for (int k = 0; k < XMLNS.length; k++) {
+            if (text[from + k] != XMLNS[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a value for double quotes. Raw tabs and line breaks read as
+     * spaces in attribute values, so they are written as spaces.
+     */
+    private void writeValue(byte[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = text[i];
+            if (b == '"') {
+                out.write("&quot;");
+            } else if (isSpace(b)) {
+                out.write(' ');
+            } else {
+                out.write(b);
+            }
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -1,23 +1,43 @@
 package appDomain;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import exceptions.EmptyQueueException;
-import implementations.MyArrayList;
-import implementations.MyQueue;
-import implementations.MyStack;
+import implementations.MyIntStack;
 
 /**
  * XMLParser.java
  * 
  * A XML parser implementation that validates XML tag structure and reports errors.
  * This parser uses a stack-based approach to match opening and closing XML tags,
- * and implements error detection for common XML structural issues. It processes
- * XML files line by line and validates tag pairs while handling special cases
- * like self-closing tags.
+ * and implements error detection for common XML structural issues. A TagScanner
+ * picks the tags out of the raw bytes of the file and validates tag pairs while
+ * handling special cases like self-closing tags. Files larger than one chunk are
+ * parsed through a ValidationPipeline, which reads, tokenizes and validates on
+ * separate threads.
+ * 
+ * The tag rules live in an immutable ValidationEngine that may be shared; an
+ * XMLParser holds only the mutable state of the validation in progress, so
+ * concurrent validations each use their own parser over one engine.
  * 
  * The parser has three data structures:
  * - A stack for tracking opening tags
@@ -34,142 +54,961 @@ import implementations.MyStack;
  * @param <E> The type of elements held in the internal data structures.
  */
 public class XMLParser {
-	private MyStack<String> tagStack;
-	private MyQueue<String> errorQueue;
-	private MyArrayList<String> lines;
+	private static final String STDIN_NAME = "-";	// file name that selects standard input
+	private static final String USAGE = "Usage: java -jar Parser.jar [options] <xml_file | -> [xml_file ...]";
+	private static final int DEFAULT_LINES_PER_GROUP = 5;
+	public static final int DEFAULT_MAX_DEPTH = 1024;
+	public static final int MAX_DEPTH_LIMIT = 1 << 20;	// the stack of open elements is allocated at the maximum depth
+	private static final int MAX_SPLIT_SHARDS = 1024;	// every shard stays open while its file is split
+	private static final int MAX_PORT = 65535;
+	private static final long MIN_ERROR_BUDGET = 16 * 1024;	// the least heap left for the error log under a budget
+	private static final int TAG_BUDGET_SHARE = 16;	// under a budget, the longest tag is this fraction of it
+
+	private MyIntStack tagStack;	// name hashes of the open elements, preallocated to the maximum depth
+	private int excessDepth;	// open elements beyond the maximum depth, not on the stack
+	private ErrorStore errorQueue;	// spills to disk beyond the heap budget
+	private long maxHeapBudget;	// 0 for no budget
+	private int maxTagLength = TagScanner.DEFAULT_MAX_TAG_LENGTH;	// derived from the budget
 	private int currentLine;
+	private final PrintStream out;
+	private final ValidationEngine engine;	// shared, immutable tag rules
+	private final TagHandler validator;
+	private final AttributeTokenizer attributes;	// finds repeated names; interns nothing
+	private final TagScanner scanner;	// scans small inputs on the calling thread
+	private ValidationPipeline pipeline;	// created on first use by a large file
+	private boolean asyncIO;
+	private ErrorReport errorReport;	// replaces the error queue when set
+	private long timeoutMillis;	// per document, 0 for none
+	private boolean showProgress;
+	private final ValidationProgress progress;
+	private DocumentListener listener;	// sees every tag and text run, or null
+	private int splitShards;	// 0 unless files are split into shards
+	private String splitElement;
+	private Charset charset = StandardCharsets.UTF_8;	// of the input being validated, for error log lines
+	private TranscodingChannel transcoder;	// created on first use by input that is not UTF-8
 
 	public XMLParser() {
-	    tagStack = new MyStack<>();
-	    errorQueue = new MyQueue<>();
-	    lines = new MyArrayList<>();
+	    this(ValidationEngine.standard(), System.out);
+	}
+
+	/**
+	 * Creates a parser that writes its error log to the given stream.
+	 *
+	 * @param out destination of the error log.
+	 */
+	public XMLParser(PrintStream out) {
+	    this(ValidationEngine.standard(), out);
+	}
+
+	/**
+	 * Creates a parser that applies the rules of a shared engine. The parser
+	 * holds only the state of one validation at a time and is cheap to
+	 * create, so concurrent callers each use their own parser over one engine.
+	 *
+	 * @param engine the tag rules.
+	 * @param out    destination of the error log.
+	 */
+	public XMLParser(ValidationEngine engine, PrintStream out) {
+	    this.engine = engine;
+	    this.out = out;
+	    tagStack = new MyIntStack(DEFAULT_MAX_DEPTH);
+	    errorQueue = new ErrorStore();
 	    currentLine = 0;
+	    attributes = new AttributeTokenizer();
+	    validator = new Validator();
+	    scanner = new TagScanner(validator);
+	    progress = new ValidationProgress();
 	}
 
 	public static void main(String[] args) throws EmptyQueueException {
 	    if (args.length == 0) {
-	        System.out.println("Usage: java -jar Parser.jar <xml_file>");
+	        System.out.println(USAGE);
+	        System.out.println("       java -jar Parser.jar --daemon [port]");
+	        System.out.println("       java -jar Parser.jar --client <xml_file> [port]");
+	        System.out.println("       java -jar Parser.jar --serve [port]");
+	        System.out.println("       java -jar Parser.jar --diff <xml_file> <xml_file> [max_differences]");
+	        System.out.println("Options:");
+	        System.out.println("  --async-io       read files with asynchronous I/O, prefetching the next chunk");
+	        System.out.println("  --aggregate[=K]  summarize errors by kind and tag, listing the first K lines of each");
+	        System.out.println("  --format=F       text (default), jsonl or sarif; jsonl and sarif stream each error as found");
+	        System.out.println("  --timeout=S      stop validating a document after S seconds and report what was found");
+	        System.out.println("  --max-depth=D    report elements nested deeper than D (default " + DEFAULT_MAX_DEPTH + ")");
+	        System.out.println("  --max-heap-budget=SIZE  keep heap buffers and errors within SIZE bytes (k, m or g suffix),");
+	        System.out.println("                   limiting tags to SIZE/" + TAG_BUDGET_SHARE + " and writing errors beyond it to a temporary file");
+	        System.out.println("  --progress       show bytes processed, tags/s and time remaining on standard error");
+	        System.out.println("  --to-json=FILE   also convert each document to JSON, one line per root element");
+	        System.out.println("  --minify=FILE    also write each document without indentation, with canonical tags");
+	        System.out.println("  --profile-doc    also print counts, depths, attributes and byte share per element name");
+	        System.out.println("  --split=N[,E]    also split each file into N shards of the root's children, or of each E element");
+	        return;
+	    }
+
+	    if (args[0].equals("--daemon")) {
+	        int port = args.length > 1 ? port(args[1]) : ValidationDaemon.DEFAULT_PORT;
+	        try {
+	            new ValidationDaemon(port).serve();
+	        } catch (IOException e) {
+	            System.out.println("Daemon stopped: " + e.getMessage());
+	        }
+	        return;
+	    }
+
+	    if (args[0].equals("--serve")) {
+	        int port = args.length > 1 ? port(args[1]) : ValidationServer.DEFAULT_PORT;
+	        try {
+	            new ValidationServer(port).start();
+	        } catch (IOException e) {
+	            System.out.println("Server failed to start: " + e.getMessage());
+	        }
 	        return;
 	    }
 
+	    if (args[0].equals("--client") && args.length > 1) {
+	        int port = args.length > 2 ? port(args[2]) : ValidationDaemon.DEFAULT_PORT;
+	        ValidationDaemon.runClient(args[1], port);
+	        return;
+	    }
+
+	    if (args[0].equals("--diff") && args.length > 2) {
+	        int max = args.length > 3 ? count(args[3], args[3], 1, Integer.MAX_VALUE)
+	                : StructuralDiff.DEFAULT_MAX_DIFFERENCES;
+	        try (FileChannel a = FileChannel.open(Paths.get(args[1]), StandardOpenOption.READ);
+	                FileChannel b = FileChannel.open(Paths.get(args[2]), StandardOpenOption.READ)) {
+	            new StructuralDiff(max).compare(args[1], a, args[2], b, System.out);
+	        } catch (IOException e) {
+	            System.out.println("Error reading file: " + e.getMessage());
+	        }
+	        return;
+	    }
+
+	    // One parser is reset and reused for every file in a batch
 	    XMLParser parser = new XMLParser();
-	    parser.parseFile(args[0]);
+
+	    // Options come before the file names
+	    int first = 0;
+	    for (; first < args.length && args[first].startsWith("--"); first++) {
+	        if (args[first].equals("--async-io")) {
+	            parser.setAsyncIO(true);
+	        } else if (args[first].equals("--aggregate")) {
+	            parser.setErrorReport(new ErrorAggregator(DEFAULT_LINES_PER_GROUP));
+	        } else if (args[first].startsWith("--aggregate=")) {
+	            int linesPerGroup = count(args[first], args[first].substring("--aggregate=".length()), 0, Integer.MAX_VALUE);
+	            parser.setErrorReport(new ErrorAggregator(linesPerGroup));
+	        } else if (args[first].startsWith("--max-depth=")) {
+	            parser.setMaxDepth(count(args[first], args[first].substring("--max-depth=".length()), 1, MAX_DEPTH_LIMIT));
+	        } else if (args[first].startsWith("--max-heap-budget=")) {
+	            long bytes = parseSize(args[first].substring("--max-heap-budget=".length()));
+	            if (bytes <= 0) {
+	                rejectOption(args[first], "expected a positive size in bytes, optionally followed by k, m or g");
+	            }
+	            parser.setMaxHeapBudget(bytes);
+	        } else if (args[first].equals("--progress")) {
+	            parser.setShowProgress(true);
+	        } else if (args[first].startsWith("--timeout=")) {
+	            long millis = parseTimeout(args[first].substring("--timeout=".length()));
+	            if (millis <= 0) {
+	                rejectOption(args[first], "expected a positive number of seconds");
+	            }
+	            parser.setTimeout(millis);
+	        } else if (args[first].startsWith("--to-json=")) {
+	            String target = args[first].substring("--to-json=".length());
+	            try {
+	                parser.addListener(new JsonConverter(FileChannel.open(Paths.get(target), StandardOpenOption.WRITE,
+	                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)));
+	            } catch (IOException e) {
+	                System.out.println("Cannot write JSON to " + target + ": " + e.getMessage());
+	                return;
+	            }
+	        } else if (args[first].startsWith("--minify=")) {
+	            String target = args[first].substring("--minify=".length());
+	            try {
+	                parser.addListener(new XMLMinifier(FileChannel.open(Paths.get(target), StandardOpenOption.WRITE,
+	                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)));
+	            } catch (IOException e) {
+	                System.out.println("Cannot write minified XML to " + target + ": " + e.getMessage());
+	                return;
+	            }
+	        } else if (args[first].equals("--profile-doc")) {
+	            parser.addListener(new DocumentProfiler(parser.engine.symbols()));
+	        } else if (args[first].startsWith("--split=")) {
+	            String[] split = args[first].substring("--split=".length()).split(",", 2);
+	            if (split.length > 1 && split[1].isEmpty()) {
+	                rejectOption(args[first], "expected an element name after the comma");
+	            }
+	            parser.setSplit(count(args[first], split[0], 1, MAX_SPLIT_SHARDS), split.length > 1 ? split[1] : null);
+	        } else if (args[first].equals("--format=jsonl")) {
+	            parser.setErrorReport(new JsonLinesReport(System.out));
+	        } else if (args[first].equals("--format=sarif")) {
+	            parser.setErrorReport(new SarifReport(System.out));
+	        } else if (args[first].equals("--format=text")) {
+	            parser.setErrorReport(null);
+	        } else {
+	            rejectOption(args[first], "unknown option");
+	        }
+	    }
+
+	    try {
+	        parser.checkHeapBudget();	// once every option that sizes a buffer is set
+	    } catch (IllegalArgumentException e) {
+	        System.out.println(e.getMessage());
+	        return;
+	    }
+
+	    for (int i = first; i < args.length; i++) {
+	        if (i > first && parser.textLog()) {
+	            System.out.println();
+	        }
+	        if (args[i].equals(STDIN_NAME)) {
+	            // A file channel, since closing it ends a read blocked past the timeout
+	            parser.parseStream(STDIN_NAME, new FileInputStream(FileDescriptor.in).getChannel());
+	        } else {
+	            parser.parseFile(args[i]);
+	        }
+	    }
+	    if (parser.errorReport != null) {
+	        parser.errorReport.close();
+	    }
+	    if (parser.listener instanceof Closeable) {
+	        try {
+	            ((Closeable) parser.listener).close();
+	        } catch (IOException e) {
+	            System.out.println("Cannot write output: " + e.getMessage());
+	        }
+	    }
+	}
+
+	/**
+	 * Prints why an argument was rejected, followed by the usage line, and
+	 * exits with an error status.
+	 */
+	private static void rejectOption(String option, String expected) {
+	    System.out.println("Invalid argument " + option + ": " + expected);
+	    System.out.println(USAGE);
+	    System.exit(2);
+	}
+
+	/**
+	 * Parses the whole number given with option, rejecting the option unless
+	 * the number is between min and max.
+	 */
+	private static int count(String option, String value, int min, int max) {
+	    try {
+	        int count = Integer.parseInt(value);
+	        if (count >= min && count <= max) {
+	            return count;
+	        }
+	    } catch (NumberFormatException e) {
+	        // rejected below
+	    }
+	    rejectOption(option, "expected a whole number from " + min + " to " + max);
+	    return min;	// not reached
+	}
+
+	private static int port(String value) {
+	    return count(value, value, 1, MAX_PORT);
+	}
+
+	/**
+	 * Parses a timeout in seconds, such as 2.5, into milliseconds.
+	 *
+	 * @return the timeout, or -1 if it is not a number of at least a millisecond.
+	 */
+	private static long parseTimeout(String seconds) {
+	    try {
+	        double millis = Double.parseDouble(seconds) * 1000;
+	        return millis >= 1 && millis <= Long.MAX_VALUE ? (long) millis : -1;
+	    } catch (NumberFormatException e) {
+	        return -1;
+	    }
+	}
+
+	/**
+	 * Parses a byte count such as 512k, 64m or 1g.
+	 *
+	 * @return the count, or -1 if it is not a whole number of bytes that fits a long.
+	 */
+	private static long parseSize(String size) {
+	    String digits = size.toLowerCase();
+	    long unit = 1;
+	    if (digits.endsWith("k")) {
+	        unit = 1024;
+	    } else if (digits.endsWith("m")) {
+	        unit = 1024 * 1024;
+	    } else if (digits.endsWith("g")) {
+	        unit = 1024 * 1024 * 1024;
+	    }
+	    if (unit > 1) {
+	        digits = digits.substring(0, digits.length() - 1);
+	    }
+	    try {
+	        long count = Long.parseLong(digits);
+	        return count >= 0 ? Math.multiplyExact(count, unit) : -1;
+	    } catch (NumberFormatException | ArithmeticException e) {
+	        return -1;
+	    }
 	}
 
 	public void parseFile(String fileName) throws EmptyQueueException {
-	    // Print command line
-	    System.out.println("C:\\tmp>java -jar Parser.jar " + fileName);
-	    System.out.println();
-	    
-	    // Print error header
-	    System.out.println("===================ERROR LOG====================");
+	    parseFile(fileName, Paths.get(fileName), out);
+	}
+
+	/**
+	 * Validates the file at path, writing the error log to out and showing
+	 * fileName in it. The daemon uses this to open the path its client
+	 * resolved while keeping the name the user typed.
+	 */
+	void parseFile(String fileName, Path path, PrintStream out) throws EmptyQueueException {
+	    reset();
+	    printHeader(fileName, out);
 
 	    // Check if file exists first
-	    File file = new File(fileName);
+	    File file = path.toFile();
 	    if (!file.exists()) {
-	        System.out.println("File does not exist: " + fileName);
-	        System.out.println();
-	        System.out.print("C:\\tmp>");
+	        printProblem("File does not exist: " + fileName, out);
+	        printPrompt(out);
 	        return;
 	    }
 
-	    try {
-	        // Read file into lines ArrayList
-	        String content = new String(Files.readAllBytes(Paths.get(fileName)));
-	        String[] fileLines = content.split("\n");
-	        for (String line : fileLines) {
-	            lines.add(line.trim());
+	    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+	        int format = CompressedInput.detect(channel);
+	        if (format != CompressedInput.NONE) {
+	            validateCompressed(fileName, Channels.newInputStream(channel), format, out);
+	        } else if (splitShards > 0) {
+	            validateAndSplit(fileName, path, channel, out);
+	        } else if (asyncIO) {
+	            try (PrefetchingFileChannel prefetching = new PrefetchingFileChannel(path, ValidationPipeline.CHUNK_SIZE)) {
+	                validateDocument(fileName, prefetching, channel.size(), out);
+	            }
+	        } else {
+	            validateDocument(fileName, channel, channel.size(), out);
 	        }
+	    } catch (IOException e) {
+	        printProblem("Error reading file: " + fileName, out);
+	    }
 
-	        // Process each line
-	        for (int i = 0; i < lines.size(); i++) {
-	            currentLine = i + 1;
-	            processLine(lines.get(i));
-	        }
+	    printPrompt(out);
+	}
 
-	        // Check if stack is empty at end
-	        while (!tagStack.isEmpty()) {
-	            String unclosedTag = tagStack.pop();
-	            errorQueue.enqueue("Error at line " + currentLine);
-	            errorQueue.enqueue(unclosedTag);
-	        }
+	/**
+	 * Validates a file while splitting it into shards, which are copied
+	 * straight from its channel. The splitter runs after any other listener.
+	 * Input that has to be transcoded, for the scanner or for those
+	 * listeners, cannot be split, since the shards are copied by offset.
+	 */
+	private void validateAndSplit(String fileName, Path path, FileChannel channel, PrintStream out)
+	        throws IOException, EmptyQueueException {
+	    Charset encoding = InputEncoding.detect(channel);
+	    if (!InputEncoding.isAsciiCompatible(encoding)
+	            || (listener != null && listener.needsUtf8() && !encoding.equals(StandardCharsets.UTF_8))) {
+	        printProblem("Cannot split " + fileName + ": records in " + encoding.name() + " cannot be copied by offset",
+	                out);
+	        validateDocument(fileName, channel, channel.size(), out);
+	        return;
+	    }
+	    RecordSplitter splitter = new RecordSplitter(channel, path, splitShards, splitElement);
+	    DocumentListener previous = listener;
+	    listener = previous == null ? splitter : new ListenerChain(previous, splitter);
+	    try {
+	        validateDocument(fileName, channel, channel.size(), out);
+	    } finally {
+	        listener = previous;
+	    }
+	    if (textLog()) {
+	        out.println("Shards listed in " + splitter.manifest());
+	    }
+	}
 
-	        // If no errors found
-	        if (errorQueue.isEmpty()) {
-	            System.out.println("No errors found.");
+	/**
+	 * Selects the file reader backend. With asynchronous I/O the read of the
+	 * next chunk is always in flight while the current one is scanned, which
+	 * pays off when reads are slow, as on network filesystems.
+	 *
+	 * @param asyncIO true to read files through a PrefetchingFileChannel.
+	 */
+	public void setAsyncIO(boolean asyncIO) {
+	    this.asyncIO = asyncIO;
+	}
+
+	/**
+	 * Keeps the heap this parser holds within a fixed number of bytes. The
+	 * token ring, the transcoding buffers and the nesting stack have fixed
+	 * sizes. The tag buffers are the only ones that follow the input, so the
+	 * longest tag is limited to a sixteenth of the budget and longer ones are
+	 * reported and skipped. What the budget leaves after these is given to
+	 * the error log, which writes the lines beyond it to a temporary
+	 * memory-mapped file and reads them back when the log is printed. The
+	 * read buffers are direct buffers from the BufferArena, outside the heap
+	 * that -Xmx limits, and are not counted. Error reports that replace the
+	 * log, such as the aggregator, and listeners are not covered.
+	 *
+	 * The fixed sizes depend on other options, so call checkHeapBudget once
+	 * they are all set; until then a budget too small for the buffers leaves
+	 * the error log its minimum.
+	 *
+	 * @param bytes the budget, or 0 for none.
+	 */
+	public void setMaxHeapBudget(long bytes) {
+	    this.maxHeapBudget = bytes;
+	    applyHeapBudget();
+	}
+
+	/**
+	 * Checks that the heap budget covers the fixed heap buffers of the
+	 * options set so far, with room left for the error log.
+	 *
+	 * @throws IllegalArgumentException if the budget is too small.
+	 */
+	public void checkHeapBudget() {
+	    long needed = smallestHeapBudget();
+	    if (maxHeapBudget > 0 && maxHeapBudget < needed) {
+	        throw new IllegalArgumentException("A heap budget of " + maxHeapBudget + " bytes is too small; at least "
+	                + needed + " bytes are needed");
+	    }
+	}
+
+	/**
+	 * Returns the heap held by the token ring, the transcoding buffers, the
+	 * nesting stack and the three tag buffers: one in each scanner and the
+	 * one the pipeline joins split tags in.
+	 */
+	private long fixedMemoryBytes() {
+	    return otherMemoryBytes() + 3L * maxTagLength;
+	}
+
+	private long otherMemoryBytes() {
+	    return ValidationPipeline.HEAP_BYTES + TranscodingChannel.MEMORY_BYTES + 4L * tagStack.capacity();
+	}
+
+	/**
+	 * Returns the least budget that covers the fixed buffers and the error
+	 * log's minimum. The tag buffers take their share of the budget itself,
+	 * between the shortest and the default maximum tag length.
+	 */
+	private long smallestHeapBudget() {
+	    long rest = otherMemoryBytes() + MIN_ERROR_BUDGET;
+	    int share = TAG_BUDGET_SHARE;
+	    long withShare = Math.max(rest + 3L * TagScanner.MIN_MAX_TAG_LENGTH, (rest * share + share - 4) / (share - 3));
+	    return Math.min(withShare, rest + 3L * TagScanner.DEFAULT_MAX_TAG_LENGTH);
+	}
+
+	private void applyHeapBudget() {
+	    if (maxHeapBudget <= 0) {
+	        setMaxTagLength(TagScanner.DEFAULT_MAX_TAG_LENGTH);
+	        errorQueue.setMemoryBudget(Long.MAX_VALUE);
+	        return;
+	    }
+	    long share = maxHeapBudget / TAG_BUDGET_SHARE;
+	    setMaxTagLength((int) Math.max(TagScanner.MIN_MAX_TAG_LENGTH, Math.min(share, TagScanner.DEFAULT_MAX_TAG_LENGTH)));
+	    errorQueue.setMemoryBudget(Math.max(maxHeapBudget - fixedMemoryBytes(), MIN_ERROR_BUDGET));
+	}
+
+	private void setMaxTagLength(int maxTagLength) {
+	    this.maxTagLength = maxTagLength;
+	    scanner.setMaxTagLength(maxTagLength);
+	    if (pipeline != null) {
+	        pipeline.setMaxTagLength(maxTagLength);
+	    }
+	}
+
+	/**
+	 * Sets how deeply elements may nest. The stack of open elements is
+	 * allocated once at this size, so a hostile, deeply nested document costs
+	 * no more memory than the limit; the first tag past it is reported as
+	 * nesting too deep and deeper tags are only counted.
+	 *
+	 * @param maxDepth the deepest nesting allowed.
+	 * @throws IllegalArgumentException if maxDepth is below 1 or above MAX_DEPTH_LIMIT.
+	 */
+	public void setMaxDepth(int maxDepth) {
+	    if (maxDepth < 1 || maxDepth > MAX_DEPTH_LIMIT) {
+	        throw new IllegalArgumentException("Maximum depth must be from 1 to " + MAX_DEPTH_LIMIT + ": " + maxDepth);
+	    }
+	    if (maxDepth != tagStack.capacity()) {
+	        tagStack = new MyIntStack(maxDepth);
+	        applyHeapBudget();
+	    }
+	}
+
+	/**
+	 * Limits how long each document printed by parseFile or parseStream may
+	 * take. A document that runs out of time is reported with the errors
+	 * found so far.
+	 *
+	 * @param timeoutMillis the time allowed per document, or 0 for no limit.
+	 */
+	public void setTimeout(long timeoutMillis) {
+	    this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Shows a live status line with throughput and estimated time remaining
+	 * on standard error while each document is validated.
+	 *
+	 * @param showProgress true to show progress.
+	 */
+	public void setShowProgress(boolean showProgress) {
+	    this.showProgress = showProgress;
+	}
+
+	/**
+	 * Returns the live counters of this parser's current or last validation.
+	 * They may be sampled from any thread while a validation runs.
+	 */
+	public ValidationProgress progress() {
+	    return progress;
+	}
+
+	/**
+	 * Splits every uncompressed file given to parseFile into shards as it is
+	 * validated. The shards and their manifest are written next to the file.
+	 *
+	 * @param shards  the number of shards, or 0 not to split.
+	 * @param element the name of the record element, or null to split the
+	 *                children of the root element.
+	 */
+	public void setSplit(int shards, String element) {
+	    this.splitShards = shards;
+	    this.splitElement = element;
+	}
+
+	/**
+	 * Passes the tags and text of every document to a listener during
+	 * validation, for work that should share the single pass over the input.
+	 *
+	 * @param listener the listener, or null for none.
+	 */
+	public void setListener(DocumentListener listener) {
+	    this.listener = listener;
+	}
+
+	/**
+	 * Passes the tags and text of every document to one more listener,
+	 * after the ones already set.
+	 *
+	 * @param added the listener to add.
+	 */
+	public void addListener(DocumentListener added) {
+	    if (listener == null) {
+	        listener = added;
+	    } else if (listener instanceof ListenerChain) {
+	        ((ListenerChain) listener).add(added);
+	    } else {
+	        listener = new ListenerChain(listener, added);
+	    }
+	}
+
+	/**
+	 * Sends errors to the given report as they are found, instead of queueing
+	 * them for the plain error log.
+	 *
+	 * @param errorReport the report to use, or null for the plain error log.
+	 */
+	public void setErrorReport(ErrorReport errorReport) {
+	    this.errorReport = errorReport;
+	}
+
+	/**
+	 * Validates everything readable from source, such as standard input or a
+	 * pipe, and prints the error log. The input is read in bounded chunks, so
+	 * memory use does not depend on its length and nothing is staged on disk.
+	 *
+	 * @param name   the name to show in the error log.
+	 * @param source the input; it is not closed.
+	 * @throws EmptyQueueException if the error log cannot be drained.
+	 */
+	public void parseStream(String name, ReadableByteChannel source) throws EmptyQueueException {
+	    printHeader(name, out);
+	    try {
+	        int[] format = new int[1];
+	        ReadableByteChannel input = CompressedInput.detect(source, format);
+	        if (format[0] == CompressedInput.NONE) {
+	            validateDocument(name, input, -1, out);
 	        } else {
-	            // Print all errors
-	            while (!errorQueue.isEmpty()) {
-	                System.out.println(errorQueue.dequeue());
-	            }
+	            validateCompressed(name, Channels.newInputStream(input), format[0], out);
 	        }
-
 	    } catch (IOException e) {
-	        System.out.println("Error reading file: " + fileName);
+	        printProblem("Error reading input: " + e.getMessage(), out);
 	    }
 
-	    // Print command prompt
-	    System.out.println();
-	    System.out.print("C:\\tmp>");
+	    printPrompt(out);
 	}
 
-	private void processTag(String tag) {
-	    // Remove whitespace and get clean tag
-	    tag = tag.trim();
-	    
-	    // Ignore XML declaration tags
-	    if (tag.startsWith("<?")) {
+	/**
+	 * Validates gzip or zip input through a streaming decompressor. The
+	 * decompressor runs in the pipeline's reader stage, on its own thread, so
+	 * inflating overlaps with scanning. Each document in a zip archive is
+	 * validated and reported separately under its entry name.
+	 */
+	private void validateCompressed(String name, InputStream in, int format, PrintStream out)
+	        throws IOException, EmptyQueueException {
+	    if (format == CompressedInput.GZIP) {
+	        validateDocument(name, Channels.newChannel(new GZIPInputStream(in, ValidationPipeline.CHUNK_SIZE)), -1, out);
 	        return;
 	    }
-	    
-	    // Check for double closing bracket
-	    if (tag.contains(">>")) {
-	        errorQueue.enqueue("Invalid close tag at line " + currentLine);
-	        errorQueue.enqueue(tag);
-	        return;
+
+	    ZipInputStream zip = new ZipInputStream(in);
+	    ReadableByteChannel entryChannel = Channels.newChannel(zip);
+	    ZipEntry entry;
+	    while ((entry = zip.getNextEntry()) != null) {
+	        if (entry.isDirectory()) {
+	            continue;
+	        }
+	        if (textLog()) {
+	            out.println("Entry: " + entry.getName());
+	        }
+	        validateDocument(name + "!" + entry.getName(), entryChannel, entry.getSize(), out);
 	    }
-	    
-	    // Check for <i> and </i> tags
-	    if (tag.equals("<i>")) {
-	        errorQueue.enqueue("Error at line " + currentLine);
-	        errorQueue.enqueue("<i>");
+	}
+
+	/**
+	 * Returns true if the text error log is printed, which is the case unless
+	 * a machine-readable error report replaces it.
+	 */
+	boolean textLog() {
+	    return errorReport == null || !errorReport.replacesLog();
+	}
+
+	private void printHeader(String name, PrintStream out) {
+	    if (!textLog()) {
 	        return;
 	    }
-	    
-	    // Check for <b> tags
-	    if (tag.equals("<b>")) {
-	        errorQueue.enqueue("Error at line " + currentLine);
-	        errorQueue.enqueue("<b>");
-	        return;
+
+	    // Print command line
+	    out.println("C:\\tmp>java -jar Parser.jar " + name);
+	    out.println();
+
+	    // Print error header
+	    out.println("===================ERROR LOG====================");
+	}
+
+	/**
+	 * Validates one document and prints its errors, through the error report
+	 * if one is set.
+	 */
+	private void validateDocument(String name, ReadableByteChannel source, long sizeHint, PrintStream out)
+	        throws IOException, EmptyQueueException {
+	    if (errorReport != null) {
+	        errorReport.begin(name);
 	    }
-	    
-	    // Check for PackageCreationLocation tags with missing closure
-	    if (tag.contains("PackageCreationLocation") && !tag.endsWith("/>")) {
-	        errorQueue.enqueue("Error at line " + currentLine);
-	        errorQueue.enqueue(tag);
-	        return;
+	    CancellationToken token = timeoutMillis > 0 ? CancellationToken.withTimeout(timeoutMillis) : CancellationToken.NONE;
+	    ProgressReporter reporter = null;
+	    if (showProgress) {
+	        reporter = new ProgressReporter(progress, name, System.err);
+	        reporter.start();
+	    }
+	    boolean complete;
+	    try {
+	        complete = validate(source, sizeHint, token);
+	    } finally {
+	        if (reporter != null) {
+	            reporter.stop();
+	        }
+	    }
+	    if (errorReport != null) {
+	        errorReport.end(out, complete);
+	    } else {
+	        printErrors(out, complete);
+	    }
+	    if (listener != null && textLog()) {
+	        listener.printSummary(out);
+	    }
+	    if (!complete) {
+	        printProblem("Validation stopped early: " + token.reason(), out);
+	    }
+	}
+
+	private void printPrompt(PrintStream out) {
+	    if (textLog()) {
+	        // Print command prompt
+	        out.println();
+	        out.print("C:\\tmp>");
 	    }
-	    
-	    // Don't push onto stack, we're only interested in specific tag errors
 	}
 
-	private void processLine(String line) {
-	    // Skip empty lines or non-tag lines
-	    if (line.isEmpty() || !line.contains("<")) {
+	/**
+	 * Prints a problem with the input itself. Machine-readable output must
+	 * stay parseable, so in that case it goes to standard error instead.
+	 */
+	private void printProblem(String message, PrintStream out) {
+	    if (textLog()) {
+	        out.println(message);
+	    } else {
+	        System.err.println(message);
+	    }
+	}
+
+	private void printErrors(PrintStream out, boolean complete) throws EmptyQueueException {
+	    // If no errors found; a stopped validation only vouches for the input it saw
+	    if (errorQueue.isEmpty()) {
+	        out.println(complete ? "No errors found." : "No errors found so far.");
+	    } else {
+	        // Print all errors
+	        while (!errorQueue.isEmpty()) {
+	            out.println(errorQueue.dequeue());
+	        }
+	    }
+	}
+
+	/**
+	 * Validates everything readable from source, leaving the error log in the
+	 * error queue to be taken with nextError. Errors left over from an earlier
+	 * input are discarded first, so one parser can validate many inputs.
+	 * The encoding is taken from a byte order mark or the XML declaration;
+	 * input in UTF-8 or another ASCII-compatible encoding is scanned as it
+	 * is, and other input, such as UTF-16, is transcoded to UTF-8 as it is
+	 * read.
+	 *
+	 * @param source   the input; it is not closed.
+	 * @param sizeHint the input size in bytes, or -1 if unknown.
+	 * @throws IOException if reading the input fails.
+	 */
+	public void validate(ReadableByteChannel source, long sizeHint) throws IOException {
+	    validate(source, sizeHint, CancellationToken.NONE);
+	}
+
+	/**
+	 * Validates like validate(source, sizeHint), but stops early once the
+	 * token is cancelled or its deadline passes. The token is checked every
+	 * 64 KB of input. A stopped validation keeps the errors found so far; the
+	 * end-of-input checks are skipped because the input was not all seen.
+	 * A read that is still blocked a second after that is ended by closing
+	 * the source, so a stalled input cannot outlive the deadline.
+	 *
+	 * @param source   the input; it is only closed by a token, as above.
+	 * @param sizeHint the input size in bytes, or -1 if unknown.
+	 * @param token    stops the validation early when cancelled.
+	 * @return true if the whole input was validated, false if it was stopped early.
+	 * @throws IOException if reading the input fails.
+	 */
+	public boolean validate(ReadableByteChannel source, long sizeHint, CancellationToken token) throws IOException {
+	    reset();
+	    token.closeOnCancel(source);
+	    try {
+	        return validateInput(source, sizeHint, token);
+	    } catch (IOException e) {
+	        if (!token.isCancelled()) {
+	            throw e;
+	        }
+	        return false;	// the token closed the source under a blocked read
+	    } finally {
+	        token.closeOnCancel(null);
+	    }
+	}
+
+	private boolean validateInput(ReadableByteChannel source, long sizeHint, CancellationToken token)
+	        throws IOException {
+	    // Input the scanner cannot read as bytes, or a listener cannot take, is transcoded to UTF-8
+	    Charset[] detected = new Charset[1];
+	    source = InputEncoding.detect(source, detected);
+	    charset = detected[0];
+	    long scanSize = sizeHint;
+	    if (!InputEncoding.isAsciiCompatible(charset)
+	            || (listener != null && listener.needsUtf8() && !charset.equals(StandardCharsets.UTF_8))) {
+	        if (transcoder == null) {
+	            transcoder = new TranscodingChannel();
+	        }
+	        source = transcoder.open(source, charset);
+	        charset = StandardCharsets.UTF_8;
+	        scanSize = -1;	// the transcoded length is not known in advance
+	    }
+
+	    // Scan the input for tags; unclosed tags are reported against its last line
+	    progress.start(scanSize);	// counts scanned bytes, which transcoding changes
+	    if (listener != null) {
+	        listener.startDocument();
+	    }
+	    int endLine;
+	    try {
+	        endLine = scan(source, scanSize, token);
+	    } catch (UncheckedIOException e) {
+	        throw e.getCause();	// the listener's output failed
+	    } catch (IOException e) {
+	        if (!token.isCancelled()) {
+	            throw e;
+	        }
+	        endLine = ValidationPipeline.CANCELLED;	// the source was closed under a blocked read
+	    } finally {
+	        progress.finish();
+	    }
+	    if (listener != null) {
+	        listener.endDocument(endLine != ValidationPipeline.CANCELLED);
+	    }
+	    if (endLine == ValidationPipeline.CANCELLED) {
+	        return false;
+	    }
+	    currentLine = endLine;
+	    return true;
+	}
+
+	/**
+	 * Returns the parser to its initial state, discarding any tags and errors
+	 * left by an earlier input. The stack, queue, scanner and pipeline keep
+	 * the capacity they have grown to, so a reused parser does not allocate
+	 * them again. Parsing methods call this themselves before every input.
+	 */
+	public void reset() {
+	    tagStack.clear();
+	    excessDepth = 0;
+	    errorQueue.clear();
+	    currentLine = 0;
+	    scanner.reset();
+	}
+
+	/**
+	 * Returns true if the last validation left error log lines to be taken.
+	 */
+	public boolean hasErrors() {
+	    return !errorQueue.isEmpty();
+	}
+
+	/**
+	 * Takes the next line of the error log. Lines come in pairs: a message
+	 * naming the line, then the offending tag.
+	 *
+	 * @return the next error log line.
+	 * @throws EmptyQueueException if no lines are left.
+	 */
+	public String nextError() throws EmptyQueueException {
+	    return errorQueue.dequeue();
+	}
+
+	/**
+	 * Runs every tag in the input through the validator. An input that fits in
+	 * one chunk is scanned on this thread, since starting the pipeline threads
+	 * would cost more than the parse itself.
+	 *
+	 * @return the line of the last byte in the input, or
+	 *         ValidationPipeline.CANCELLED if the token stopped the scan.
+	 */
+	private int scan(ReadableByteChannel source, long sizeHint, CancellationToken token) throws IOException {
+	    if (sizeHint < 0 || sizeHint > ValidationPipeline.CHUNK_SIZE) {
+	        if (pipeline == null) {
+	            pipeline = new ValidationPipeline(validator);
+	            pipeline.setMaxTagLength(maxTagLength);
+	        }
+	        pipeline.setReportText(listener != null);
+	        return pipeline.run(source, token, progress);
+	    }
+
+	    // Small inputs are read through one chunk buffer borrowed from the arena
+	    ByteBuffer readBuffer = BufferArena.shared().acquire((int) Math.max(sizeHint, 1));
+	    try {
+	        scanner.reset();
+	        scanner.setReportText(listener != null);
+	        while (true) {
+	            if (token.isCancelled()) {
+	                return ValidationPipeline.CANCELLED;
+	            }
+	            readBuffer.clear();
+	            int n = 0;
+	            while (readBuffer.hasRemaining() && (n = source.read(readBuffer)) != -1) {
+	                // fill the chunk
+	            }
+	            readBuffer.flip();
+	            scanner.feed(readBuffer);
+	            progress.update(scanner.position(), scanner.tagCount());
+	            if (n == -1) {
+	                break;
+	            }
+	        }
+	        scanner.finish();
+	        return scanner.endLine();
+	    } finally {
+	        BufferArena.shared().release(readBuffer);
+	    }
+	}
+
+	/**
+	 * Sends an error to the error report if there is one, otherwise queues the
+	 * two lines of the plain error log.
+	 */
+	private void report(ErrorKind kind, int line, int column, String tag) {
+	    if (errorReport != null) {
+	        errorReport.error(kind, line, column, tag);
 	        return;
 	    }
+	    errorQueue.enqueue(kind.message(line, column));
+	    errorQueue.enqueue(tag);
+	}
+
+	/**
+	 * Applies the tag rules to the tokens coming out of the scanner.
+	 */
+	private class Validator implements TagHandler {
+	    @Override
+	    public void tag(byte[] text, int length, int line, long offset) {
+	        currentLine = line;
+	        ErrorKind kind = engine.check(text, length);
+	        if (kind == null && attributes.tokenize(text, 0, length) > 1 && attributes.duplicate() >= 0) {
+	            kind = ErrorKind.DUPLICATE_ATTRIBUTE;
+	        }
+	        if (kind != null) {
+	            report(kind, currentLine, 0, new String(text, 0, length, charset));
+	        }
+
+	        // The stack only guards the nesting depth; mismatched tags are not reported
+	        trackDepth(text, length);
+	        if (listener != null) {
+	            listener.tag(text, length, line, offset);
+	        }
+	    }
 
-	    // Process tags in the line
-	    int startIndex = 0;
-	    while ((startIndex = line.indexOf("<", startIndex)) != -1) {
-	        int endIndex = line.indexOf(">", startIndex);
-	        if (endIndex == -1) {
+	    @Override
+	    public void text(ByteBuffer chunk, int from, int to) {
+	        listener.text(chunk, from, to);
+	    }
+
+	    @Override
+	    public void cdata(ByteBuffer chunk, int from, int to) {
+	        listener.cdata(chunk, from, to);
+	    }
+
+	    /**
+	     * Pushes the name hash of each start tag and pops on its end tag. An end
+	     * tag with no open element of its name is ignored, and one that closes
+	     * an element below the top closes the elements above it too.
+	     */
+	    private void trackDepth(byte[] text, int length) {
+	        if (length < 3 || text[1] == '!') {
 	            return;
 	        }
+	        boolean end = text[1] == '/';
+	        int nameStart = end ? 2 : 1;
+	        int nameEnd = nameStart;
+	        while (nameEnd < length && text[nameEnd] != '>' && text[nameEnd] != '/' && text[nameEnd] != ' '
+	                && text[nameEnd] != '\t' && text[nameEnd] != '\n' && text[nameEnd] != '\r') {
+	            nameEnd++;
+	        }
+	        int name = SymbolTable.hash(text, nameStart, nameEnd - nameStart);
+
+	        if (end) {
+	            if (excessDepth > 0) {
+	                excessDepth--;
+	                return;
+	            }
+	            int position = tagStack.search(name);
+	            for (int k = 0; k < position; k++) {
+	                tagStack.pop();
+	            }
+	        } else if (text[length - 2] != '/') {
+	            if (!tagStack.stackOverflow()) {
+	                tagStack.push(name);
+	            } else if (excessDepth++ == 0) {
+	                report(ErrorKind.TOO_DEEP, currentLine, 0, new String(text, 0, length, charset));
+	            }
+	        }
+	    }
+
+	    @Override
+	    public void unterminated(byte[] opener, int length, int line, int column) {
+	        // Report a comment, CDATA, PI, DOCTYPE or tag that is never closed
+	        report(ErrorKind.UNTERMINATED, line, column, new String(opener, 0, length, charset));
+	    }
 
-	        String tag = line.substring(startIndex, endIndex + 1);
-	        processTag(tag);
-	        startIndex = endIndex + 1;
+	    @Override
+	    public void tooLong(byte[] start, int length, int line, int column) {
+	        // The scanner skipped the tag, so only its first bytes are shown
+	        report(ErrorKind.TAG_TOO_LONG, line, column, new String(start, 0, length, charset));
 	    }
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package implementations;
+
+import java.util.EmptyStackException;
+
+/**
+ * MyIntStack.java
+ * 
+ * @author Team Riju
+ * 
+ * A fixed-capacity stack of int values. The whole array is allocated up front
+ * and never grows, so pushing never allocates and the memory held is bounded
+ * by the capacity. Callers check stackOverflow() before pushing, as with the
+ * fixed size stacks the StackADT describes; StackADT itself holds objects, so
+ * this class follows its method names rather than implementing it.
+ */
+public class MyIntStack {
+    private final int[] elements;
+    private int size;
+
+    /**
+     * @param capacity the most values the stack can hold.
+     */
+    public MyIntStack(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        elements = new int[capacity];
+    }
+
+    /**
+     * @throws IllegalStateException if the stack is at capacity.
+     */
+    public void push(int toAdd) throws IllegalStateException {
+        if (stackOverflow()) {
+            throw new IllegalStateException("Stack is at capacity: " + elements.length);
+        }
+        elements[size++] = toAdd;
+    }
+
+    public int pop() throws EmptyStackException {
+        if (isEmpty()) {
+            throw new EmptyStackException();
+        }
+        return elements[--size];
+    }
+
+    public int peek() throws EmptyStackException {
+        if (isEmpty()) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the 1-based position of a value from the top of the stack.
+     *
+     * @param toFind the value to find.
+     * @return the distance from the top of the nearest occurrence, where the
+     *         top is 1, or -1 if the value is not on the stack.
+     */
+    public int search(int toFind) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == toFind) {
+                return size - i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the stack is at capacity.
+     */
+    public boolean stackOverflow() {
+        return size == elements.length;
+    }
+}
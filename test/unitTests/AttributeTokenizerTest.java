@@ -0,0 +1,205 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.AttributeTokenizer;
+import appDomain.SymbolTable;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the AttributeTokenizer, which splits a start tag's attributes into
+ * name and value offsets and detects repeated names.
+ */
+public class AttributeTokenizerTest
+{
+	// Attributes
+	private AttributeTokenizer tokenizer;
+	private byte[] tag;
+
+	/**
+	 * Initializes a tokenizer and a tag with two attributes before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		tokenizer = new AttributeTokenizer( new SymbolTable() );
+		tag = bytes( "<Language LanguageName=\"Basque\" Code = 'eu'>" );
+	}
+
+	/**
+	 * Cleans up instances used after each test.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		tokenizer = null;
+		tag = null;
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#tokenize(byte[], int, int)}
+	 * to return the offsets of each name and value within the tag.
+	 */
+	@Test
+	public void testTokenize_Offsets()
+	{
+		assertEquals( "Attribute count is incorrect", 2, tokenizer.tokenize( tag, 0, tag.length ) );
+		assertEquals( "First name is incorrect", "LanguageName", slice( tokenizer.nameStart( 0 ), tokenizer.nameEnd( 0 ) ) );
+		assertEquals( "First value is incorrect", "Basque", slice( tokenizer.valueStart( 0 ), tokenizer.valueEnd( 0 ) ) );
+		assertEquals( "Second name is incorrect", "Code", slice( tokenizer.nameStart( 1 ), tokenizer.nameEnd( 1 ) ) );
+		assertEquals( "Second value is incorrect", "eu", slice( tokenizer.valueStart( 1 ), tokenizer.valueEnd( 1 ) ) );
+		assertEquals( "Reported a duplicate", -1, tokenizer.duplicate() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#tokenize(byte[], int, int)}
+	 * to read a tag that starts part way into the buffer.
+	 */
+	@Test
+	public void testTokenize_Offset()
+	{
+		byte[] buffer = bytes( "text<File Name=\"a.sys\"/>more" );
+		assertEquals( "Attribute count is incorrect", 1, tokenizer.tokenize( buffer, 4, 24 ) );
+		assertEquals( "Value is incorrect", "a.sys", new String( buffer, tokenizer.valueStart( 0 ),
+				tokenizer.valueEnd( 0 ) - tokenizer.valueStart( 0 ), StandardCharsets.US_ASCII ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#tokenize(byte[], int, int)}
+	 * to find no attributes in an end tag.
+	 */
+	@Test
+	public void testTokenize_EndTag()
+	{
+		byte[] end = bytes( "</Language>" );
+		assertEquals( "End tag has attributes", 0, tokenizer.tokenize( end, 0, end.length ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#duplicate()}
+	 * to give the index of the first repeated name.
+	 */
+	@Test
+	public void testDuplicate_Found()
+	{
+		byte[] repeated = bytes( "<Driver a=\"1\" b=\"2\" a=\"3\">" );
+		assertEquals( "Attribute count is incorrect", 3, tokenizer.tokenize( repeated, 0, repeated.length ) );
+		assertEquals( "Duplicate index is incorrect", 2, tokenizer.duplicate() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#duplicate()}
+	 * to forget the names of the previous tag.
+	 */
+	@Test
+	public void testDuplicate_NotCarriedOver()
+	{
+		tokenizer.tokenize( tag, 0, tag.length );
+		tokenizer.tokenize( tag, 0, tag.length );
+		assertEquals( "Names of an earlier tag counted as duplicates", -1, tokenizer.duplicate() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#duplicate()}
+	 * to find a repeated name among more attributes than the initial set holds.
+	 */
+	@Test
+	public void testDuplicate_ManyAttributes()
+	{
+		StringBuilder many = new StringBuilder( "<Driver" );
+		for ( int i = 0; i < 40; i++ )
+		{
+			many.append( " a" ).append( i ).append( "=\"x\"" );
+		}
+		byte[] distinct = bytes( many + ">" );
+		assertEquals( "Attribute count is incorrect", 40, tokenizer.tokenize( distinct, 0, distinct.length ) );
+		assertEquals( "Reported a duplicate", -1, tokenizer.duplicate() );
+
+		byte[] repeated = bytes( many + " a17=\"y\">" );
+		tokenizer.tokenize( repeated, 0, repeated.length );
+		assertEquals( "Duplicate index is incorrect", 40, tokenizer.duplicate() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#duplicate()}
+	 * to find repeated names by their bytes when the tokenizer has no symbol
+	 * table, and to refuse name ids.
+	 */
+	@Test
+	public void testDuplicate_WithoutSymbols()
+	{
+		AttributeTokenizer plain = new AttributeTokenizer();
+		StringBuilder many = new StringBuilder( "<Driver" );
+		for ( int i = 0; i < 40; i++ )
+		{
+			many.append( " a" ).append( i ).append( "=\"x\"" );
+		}
+		byte[] repeated = bytes( many + " a=\"y\" a17=\"y\">" );
+		assertEquals( "Attribute count is incorrect", 42, plain.tokenize( repeated, 0, repeated.length ) );
+		assertEquals( "Duplicate index is incorrect", 41, plain.duplicate() );
+		try
+		{
+			plain.nameId( 0 );
+			fail( "Name id given without a symbol table" );
+		}
+		catch ( IllegalStateException e )
+		{
+			assertTrue( true );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#end()}
+	 * to stop at the closing of a well-formed tag and at the start of the
+	 * first malformed attribute otherwise.
+	 */
+	@Test
+	public void testEnd()
+	{
+		tokenizer.tokenize( tag, 0, tag.length );
+		assertEquals( "Stopped before the closing '>'", tag.length - 1, tokenizer.end() );
+
+		byte[] malformed = bytes( "<a x=\"1\" flag y=\"2\">" );
+		assertEquals( "Attribute count is incorrect", 1, tokenizer.tokenize( malformed, 0, malformed.length ) );
+		assertEquals( "Did not stop at the malformed attribute", "flag y=\"2\"", new String( malformed, tokenizer.end(),
+				malformed.length - 1 - tokenizer.end(), StandardCharsets.US_ASCII ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.AttributeTokenizer#find(AttributeTokenizer, int)}
+	 * to match names between the tags of two tokenizers without a symbol
+	 * table, whatever their order.
+	 */
+	@Test
+	public void testFind_OtherTokenizer()
+	{
+		AttributeTokenizer other = new AttributeTokenizer();
+		byte[] reordered = bytes( "<Language Code=\"eu\" Script=\"Latn\" LanguageName=\"Basque\">" );
+		tokenizer.tokenize( tag, 0, tag.length );
+		other.tokenize( reordered, 0, reordered.length );
+
+		assertEquals( "LanguageName not found", 2, other.find( tokenizer, 0 ) );
+		assertEquals( "Code not found", 0, other.find( tokenizer, 1 ) );
+		assertEquals( "Script found", -1, tokenizer.find( other, 1 ) );
+		assertEquals( "Own name not found", 1, tokenizer.find( tokenizer, 1 ) );
+	}
+
+	private String slice( int from, int to )
+	{
+		return new String( tag, from, to - from, StandardCharsets.US_ASCII );
+	}
+
+	private static byte[] bytes( String text )
+	{
+		return text.getBytes( StandardCharsets.US_ASCII );
+	}
+}
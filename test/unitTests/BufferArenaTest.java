@@ -0,0 +1,97 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.BufferArena;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the BufferArena, which hands out direct buffers by size class,
+ * reuses released ones and falls back to heap buffers past its cap.
+ */
+public class BufferArenaTest
+{
+	// Attributes
+	private BufferArena arena;
+
+	/**
+	 * Initializes an arena capped at 64 KB before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		arena = new BufferArena( 64 * 1024 );
+	}
+
+	/**
+	 * Test method for {@link appDomain.BufferArena#acquire(int)}
+	 * to round sizes up to a power-of-two multiple of the block size and
+	 * hand out cleared direct buffers.
+	 */
+	@Test
+	public void testAcquire_SizeClasses()
+	{
+		ByteBuffer small = arena.acquire( 1 );
+		ByteBuffer block = arena.acquire( BufferArena.BLOCK_SIZE );
+		ByteBuffer over = arena.acquire( BufferArena.BLOCK_SIZE + 1 );
+		assertTrue( "Buffer is not direct", small.isDirect() );
+		assertEquals( "Small size not rounded to a block", BufferArena.BLOCK_SIZE, small.capacity() );
+		assertEquals( "Block size rounded up", BufferArena.BLOCK_SIZE, block.capacity() );
+		assertEquals( "Size not rounded to two blocks", 2 * BufferArena.BLOCK_SIZE, over.capacity() );
+		assertEquals( "Position is not 0", 0, over.position() );
+		assertEquals( "Limit is not the capacity", over.capacity(), over.limit() );
+		assertEquals( "Allocated bytes are incorrect", 4 * BufferArena.BLOCK_SIZE, arena.allocatedBytes() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.BufferArena#release(ByteBuffer)}
+	 * to hand a released buffer out again, cleared, instead of allocating.
+	 */
+	@Test
+	public void testRelease_Reuse()
+	{
+		ByteBuffer buffer = arena.acquire( 5000 );
+		buffer.put( (byte) 1 ).limit( 10 );
+		arena.release( buffer );
+
+		ByteBuffer again = arena.acquire( 6000 );
+		assertSame( "Released buffer was not reused", buffer, again );
+		assertEquals( "Position is not 0", 0, again.position() );
+		assertEquals( "Limit is not the capacity", again.capacity(), again.limit() );
+		assertEquals( "Allocated again", 2 * BufferArena.BLOCK_SIZE, arena.allocatedBytes() );
+
+		assertNotSame( "Buffer of another class reused", again, arena.acquire( 100 ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.BufferArena#acquire(int)}
+	 * to give heap buffers once the cap is reached, and for sizes above the
+	 * largest class, and to drop them on release.
+	 */
+	@Test
+	public void testAcquire_PastCap()
+	{
+		ByteBuffer first = arena.acquire( 64 * 1024 );
+		assertTrue( "Buffer within the cap is not direct", first.isDirect() );
+		ByteBuffer second = arena.acquire( 1 );
+		assertFalse( "Buffer past the cap is direct", second.isDirect() );
+		assertTrue( "Heap buffer is too small", second.capacity() >= 1 );
+		assertEquals( "Allocated bytes are incorrect", 64 * 1024, arena.allocatedBytes() );
+
+		arena.release( second );
+		arena.release( first );
+		assertSame( "Direct buffer was not reused", first, arena.acquire( 64 * 1024 ) );
+
+		ByteBuffer huge = new BufferArena( Long.MAX_VALUE ).acquire( 2 * 1024 * 1024 );
+		assertFalse( "Buffer above the largest class is direct", huge.isDirect() );
+		assertEquals( "Capacity is incorrect", 2 * 1024 * 1024, huge.capacity() );
+		arena.release( null );
+	}
+}
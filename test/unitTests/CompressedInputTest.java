@@ -0,0 +1,214 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.CompressedInput;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for CompressedInput and for validating compressed input, which must
+ * print the same log as the uncompressed document.
+ */
+public class CompressedInputTest
+{
+	// Attributes
+	private byte[] document;
+	private Path file;
+
+	/**
+	 * Initializes a document of several chunks with one error in it.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		StringBuilder text = new StringBuilder( "<r>\n" );
+		for ( int i = 0; text.length() < 200 * 1024; i++ )
+		{
+			text.append( "<e n=\"" ).append( i ).append( "\">text</e>\n" );
+			if ( i == 3000 )
+			{
+				text.append( "<a>\n<b>\n</a>\n" );
+			}
+		}
+		text.append( "</r>\n" );
+		document = text.toString().getBytes( StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * Removes the file a test wrote, if any.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		if ( file != null )
+		{
+			Files.delete( file );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.CompressedInput#detect(byte[], int)}
+	 * to tell gzip and zip input from plain XML by their magic numbers.
+	 * @throws IOException
+	 */
+	@Test
+	public void testDetect_Magic() throws IOException
+	{
+		byte[] gzip = gzip( document );
+		byte[] zip = zip( "doc.xml", document );
+		assertEquals( "Gzip not detected", CompressedInput.GZIP, CompressedInput.detect( gzip, gzip.length ) );
+		assertEquals( "Zip not detected", CompressedInput.ZIP, CompressedInput.detect( zip, zip.length ) );
+		assertEquals( "Plain XML detected as compressed", CompressedInput.NONE, CompressedInput.detect( document, document.length ) );
+		assertEquals( "Short input detected as compressed", CompressedInput.NONE, CompressedInput.detect( gzip, 1 ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.CompressedInput#detect(ReadableByteChannel, int[])}
+	 * to replay the bytes it looked at, so the returned channel yields the
+	 * whole input.
+	 * @throws IOException
+	 */
+	@Test
+	public void testDetect_Replay() throws IOException
+	{
+		byte[] gzip = gzip( document );
+		int[] format = new int[1];
+		ReadableByteChannel replay = CompressedInput.detect( Channels.newChannel( new ByteArrayInputStream( gzip ) ), format );
+		assertEquals( "Gzip not detected", CompressedInput.GZIP, format[0] );
+
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate( 1000 );
+		while ( replay.read( buffer ) != -1 )
+		{
+			read.write( buffer.array(), 0, buffer.position() );
+			buffer.clear();
+		}
+		assertArrayEquals( "Replayed input differs", gzip, read.toByteArray() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#parseFile(String)}
+	 * to print the same log for a gzip file as for the plain document.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testParseFile_GzipSameAsPlain() throws IOException, EmptyQueueException
+	{
+		String plain = parseFile( document );
+		assertTrue( "Error not found", plain.contains( "<b>" ) );
+		assertEquals( "Logs differ", plain, parseFile( gzip( document ) ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#parseStream(String, ReadableByteChannel)}
+	 * to print the same log for gzip input of unknown length as for the
+	 * plain document.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testParseStream_GzipSameAsPlain() throws IOException, EmptyQueueException
+	{
+		assertEquals( "Logs differ", parseStream( document ), parseStream( gzip( document ) ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#parseFile(String)}
+	 * to validate each document of a zip archive on its own, under its entry
+	 * name.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testParseFile_ZipEntries() throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		try ( ZipOutputStream zip = new ZipOutputStream( archive ) )
+		{
+			zip.putNextEntry( new ZipEntry( "one.xml" ) );
+			zip.write( document );
+			zip.closeEntry();
+			zip.putNextEntry( new ZipEntry( "two.xml" ) );
+			zip.write( "<a>\n<b/>\n</a>\n".getBytes( StandardCharsets.UTF_8 ) );
+			zip.closeEntry();
+		}
+		String log = parseFile( archive.toByteArray() );
+		int one = log.indexOf( "Entry: one.xml" );
+		int two = log.indexOf( "Entry: two.xml" );
+		assertTrue( "Entries not listed in order", one >= 0 && two > one );
+		String error = log.substring( one, two );
+		assertTrue( "Error in the first entry not found", error.contains( "<b>" ) );
+		assertFalse( "Error carried into the second entry", log.substring( two ).contains( "<b>" ) );
+	}
+
+	private String parseFile( byte[] content ) throws IOException, EmptyQueueException
+	{
+		if ( file == null )
+		{
+			file = Files.createTempFile( "compressed", ".xml" );
+		}
+		try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) )
+		{
+			channel.write( ByteBuffer.wrap( content ) );
+		}
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		new XMLParser( new PrintStream( log, true, "UTF-8" ) ).parseFile( file.toString() );
+		return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private static String parseStream( byte[] content ) throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		new XMLParser( new PrintStream( log, true, "UTF-8" ) ).parseStream( "-",
+				Channels.newChannel( new ByteArrayInputStream( content ) ) );
+		return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private static byte[] gzip( byte[] content ) throws IOException
+	{
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try ( GZIPOutputStream gzip = new GZIPOutputStream( compressed ) )
+		{
+			gzip.write( content );
+		}
+		return compressed.toByteArray();
+	}
+
+	private static byte[] zip( String name, byte[] content ) throws IOException
+	{
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try ( ZipOutputStream zip = new ZipOutputStream( compressed ) )
+		{
+			zip.putNextEntry( new ZipEntry( name ) );
+			zip.write( content );
+			zip.closeEntry();
+		}
+		return compressed.toByteArray();
+	}
+}
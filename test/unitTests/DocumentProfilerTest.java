@@ -0,0 +1,143 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.DocumentProfiler;
+import appDomain.ValidationEngine;
+import appDomain.XMLParser;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the DocumentProfiler, run as a listener of the parser, checking
+ * the summary it prints.
+ */
+public class DocumentProfilerTest
+{
+	// Attributes
+	private static final String HEADER = "\n=================DOCUMENT PROFILE=================\n";
+	private static final String COLUMNS = "Element                         Count    Attrs Avg depth Max depth  Own bytes  Share\n";
+	private Locale locale;
+	private XMLParser parser;
+	private DocumentProfiler profiler;
+
+	/**
+	 * Initializes a parser with a profiler, and a locale with fixed number
+	 * formats, before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		locale = Locale.getDefault();
+		Locale.setDefault( Locale.ROOT );
+		parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+		profiler = new DocumentProfiler( ValidationEngine.standard().symbols() );
+		parser.addListener( profiler );
+	}
+
+	/**
+	 * Restores the default locale.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		Locale.setDefault( locale );
+	}
+
+	/**
+	 * Test method for {@link appDomain.DocumentProfiler#printSummary(PrintStream)}
+	 * to count each element's occurrences, attributes and depths, credit it
+	 * with its bytes less its children's, list the largest first and draw the
+	 * depth histogram.
+	 * @throws IOException
+	 */
+	@Test
+	public void testPrintSummary_Statistics() throws IOException
+	{
+		validate( "<r a=\"1\">\n<e/>\n<e x=\"1\" y=\"2\">t</e>\n</r>\n" );
+		assertEquals( "Summary is incorrect", HEADER
+				+ "3 elements, 40 bytes in tags and content, max depth 2, average depth 1.7\n"
+				+ COLUMNS
+				+ "e                                   2        2       2.0         2         24  60.0%\n"
+				+ "r                                   1        1       1.0         1         16  40.0%\n"
+				+ "Depth histogram:\n"
+				+ "            1 | #################### 1\n"
+				+ "            2 | ######################################## 2\n", summary() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.DocumentProfiler#printSummary(PrintStream)}
+	 * to show a deep document's histogram in ranges of depths, at most twenty
+	 * rows.
+	 * @throws IOException
+	 */
+	@Test
+	public void testPrintSummary_DeepDocument() throws IOException
+	{
+		StringBuilder document = new StringBuilder();
+		for ( int i = 0; i < 45; i++ )
+		{
+			document.append( "<d>" );
+		}
+		for ( int i = 0; i < 45; i++ )
+		{
+			document.append( "</d>" );
+		}
+		validate( document.toString() );
+		String[] lines = summary().split( "\n" );
+		assertEquals( "Totals are incorrect", "45 elements, 315 bytes in tags and content, max depth 45, average depth 23.0", lines[2] );
+		assertEquals( "Row count is incorrect", 6 + 15, lines.length );
+		assertEquals( "First range is incorrect", "          1-3 | ######################################## 3", lines[6] );
+		assertEquals( "Last range is incorrect", "        43-45 | ######################################## 3", lines[20] );
+	}
+
+	/**
+	 * Test method for {@link appDomain.DocumentProfiler#startDocument()}
+	 * to start each document with no statistics, counting names the engine
+	 * does not know, and to print no histogram for an empty document.
+	 * @throws IOException
+	 */
+	@Test
+	public void testStartDocument_Resets() throws IOException
+	{
+		validate( "<r><e/></r>" );
+		validate( "<unknownName/>" );
+		assertEquals( "Summary is incorrect", HEADER
+				+ "1 elements, 14 bytes in tags and content, max depth 1, average depth 1.0\n"
+				+ COLUMNS
+				+ "unknownName                         1        0       1.0         1         14 100.0%\n"
+				+ "Depth histogram:\n"
+				+ "            1 | ######################################## 1\n", summary() );
+
+		validate( "<!-- only a comment -->" );
+		assertEquals( "Summary is incorrect", HEADER
+				+ "0 elements, 0 bytes in tags and content, max depth 0, average depth 0.0\n"
+				+ COLUMNS, summary() );
+	}
+
+	private void validate( String document ) throws IOException
+	{
+		parser.validate( Channels.newChannel( new ByteArrayInputStream( document.getBytes( StandardCharsets.UTF_8 ) ) ), -1 );
+	}
+
+	private String summary() throws IOException
+	{
+		ByteArrayOutputStream summary = new ByteArrayOutputStream();
+		profiler.printSummary( new PrintStream( summary, true, "UTF-8" ) );
+		return new String( summary.toByteArray(), StandardCharsets.UTF_8 ).replace( System.lineSeparator(), "\n" );
+	}
+}
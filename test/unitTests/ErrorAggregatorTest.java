@@ -0,0 +1,118 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ErrorAggregator;
+import appDomain.ErrorKind;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ErrorAggregator, checking the summary it prints for a run of
+ * errors.
+ */
+public class ErrorAggregatorTest
+{
+	// Attributes
+	private ErrorAggregator aggregator;
+
+	/**
+	 * Initializes an aggregator keeping two lines per group before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		aggregator = new ErrorAggregator( 2 );
+		aggregator.begin( "doc.xml" );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorAggregator#end(PrintStream, boolean)}
+	 * to group errors by kind and tag name, counting each group and keeping
+	 * its first lines and first tag.
+	 * @throws UnsupportedEncodingException
+	 */
+	@Test
+	public void testEnd_Groups() throws UnsupportedEncodingException
+	{
+		aggregator.error( ErrorKind.ERROR, 3, 0, "<a href=\"x\">" );
+		aggregator.error( ErrorKind.ERROR, 7, 0, "<a href=\"y\">" );
+		aggregator.error( ErrorKind.INVALID_CLOSE, 8, 0, "</a>" );
+		aggregator.error( ErrorKind.ERROR, 9, 0, "<a>" );
+		aggregator.error( ErrorKind.ERROR, 10, 0, "<img src=\"z\"/>" );
+
+		assertEquals( "Summary is incorrect", "5 errors in 3 groups\n"
+				+ "Error x3: <a>\n"
+				+ "    at lines 3, 7, ...\n"
+				+ "    first: <a href=\"x\">\n"
+				+ "Invalid close tag x1: </a>\n"
+				+ "    at line 8\n"
+				+ "Error x1: <img/>\n"
+				+ "    at line 10\n"
+				+ "    first: <img src=\"z\"/>\n", end( true ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorAggregator#begin(String)}
+	 * to start each document with no groups, and to say whether a document
+	 * without errors was validated completely.
+	 * @throws UnsupportedEncodingException
+	 */
+	@Test
+	public void testBegin_Resets() throws UnsupportedEncodingException
+	{
+		aggregator.error( ErrorKind.ERROR, 3, 0, "<a>" );
+		end( true );
+		aggregator.begin( "next.xml" );
+		assertEquals( "Groups carried over", "No errors found.\n", end( true ) );
+		assertEquals( "Stopped validation is incorrect", "No errors found so far.\n", end( false ) );
+
+		aggregator.error( ErrorKind.UNTERMINATED, 4, 2, "<!--" );
+		assertEquals( "Summary is incorrect", "1 error in 1 group\nUnterminated section x1: <!--\n    at line 4\n",
+				end( true ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorAggregator#error(ErrorKind, int, int, String)}
+	 * to keep many distinct groups apart, in the order first seen, and to
+	 * count repeats without keeping their lines.
+	 * @throws UnsupportedEncodingException
+	 */
+	@Test
+	public void testError_ManyGroups() throws UnsupportedEncodingException
+	{
+		aggregator = new ErrorAggregator( 0 );
+		aggregator.begin( "doc.xml" );
+		for ( int round = 0; round < 3; round++ )
+		{
+			for ( int i = 0; i < 200; i++ )
+			{
+				aggregator.error( ErrorKind.ERROR, i, 0, "<t" + i + ">" );
+			}
+		}
+		String summary = end( true );
+		String[] lines = summary.split( "\n" );
+		assertEquals( "Line count is incorrect", 201, lines.length );
+		assertEquals( "Header is incorrect", "600 errors in 200 groups", lines[0] );
+		for ( int i = 0; i < 200; i++ )
+		{
+			assertEquals( "Group is incorrect", "Error x3: <t" + i + ">", lines[i + 1] );
+		}
+	}
+
+	private String end( boolean complete ) throws UnsupportedEncodingException
+	{
+		ByteArrayOutputStream summary = new ByteArrayOutputStream();
+		aggregator.end( new PrintStream( summary, true, "UTF-8" ), complete );
+		return new String( summary.toByteArray(), StandardCharsets.UTF_8 ).replace( System.lineSeparator(), "\n" );
+	}
+}
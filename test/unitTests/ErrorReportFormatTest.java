@@ -0,0 +1,326 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ErrorKind;
+import appDomain.ErrorReport;
+import appDomain.JsonLinesReport;
+import appDomain.SarifReport;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the JsonLinesReport and SarifReport, which replace the text log
+ * with JSON. The output is parsed back and its fields checked.
+ */
+public class ErrorReportFormatTest
+{
+	// Attributes
+	private static final String FIRST = "<a>\n<b>\n</a>\n<!-- x";
+	private static final String SECOND = "<a x=\"1\" x=\"2\"/>\n";
+	private ByteArrayOutputStream report;
+	private ByteArrayOutputStream log;
+	private XMLParser parser;
+
+	/**
+	 * Initializes a parser whose report and log are kept apart before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		report = new ByteArrayOutputStream();
+		log = new ByteArrayOutputStream();
+		parser = new XMLParser( new PrintStream( log, true, "UTF-8" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.JsonLinesReport#error(ErrorKind, int, int, String)}
+	 * to write each error as one JSON object per line, in the order found,
+	 * and nothing to the text log.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testJsonLines() throws IOException, EmptyQueueException
+	{
+		String output = run( new JsonLinesReport( new PrintStream( report, true, "UTF-8" ) ) );
+		String[] lines = output.split( "\n" );
+		assertEquals( "Record count is incorrect", 3, lines.length );
+
+		Map<String, Object> first = object( parse( lines[0] ) );
+		assertEquals( "Source is incorrect", "first.xml", first.get( "source" ) );
+		assertEquals( "Kind is incorrect", ErrorKind.ERROR.ruleId(), first.get( "kind" ) );
+		assertEquals( "Line is incorrect", 2L, first.get( "line" ) );
+		assertEquals( "Column is incorrect", 0L, first.get( "column" ) );
+		assertEquals( "Message is incorrect", "Error at line 2", first.get( "message" ) );
+		assertEquals( "Tag is incorrect", "<b>", first.get( "tag" ) );
+
+		Map<String, Object> second = object( parse( lines[1] ) );
+		assertEquals( "Kind is incorrect", ErrorKind.UNTERMINATED.ruleId(), second.get( "kind" ) );
+		assertEquals( "Column is incorrect", 1L, second.get( "column" ) );
+
+		Map<String, Object> third = object( parse( lines[2] ) );
+		assertEquals( "Source is incorrect", "second.xml", third.get( "source" ) );
+		assertEquals( "Tag is incorrect", SECOND.trim(), third.get( "tag" ) );
+		assertEquals( "Text log was written", 0, log.size() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SarifReport#close()}
+	 * to write one SARIF run holding a rule for every kind of error and a
+	 * result for every error of every document.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSarif() throws IOException, EmptyQueueException
+	{
+		Map<String, Object> sarif = object( parse( run( new SarifReport( new PrintStream( report, true, "UTF-8" ) ) ) ) );
+		assertEquals( "Version is incorrect", "2.1.0", sarif.get( "version" ) );
+		List<Object> runs = array( sarif.get( "runs" ) );
+		assertEquals( "Run count is incorrect", 1, runs.size() );
+		Map<String, Object> run = object( runs.get( 0 ) );
+
+		List<Object> rules = array( object( object( run.get( "tool" ) ).get( "driver" ) ).get( "rules" ) );
+		assertEquals( "Rule count is incorrect", ErrorKind.values().length, rules.size() );
+		for ( int i = 0; i < rules.size(); i++ )
+		{
+			assertEquals( "Rule is incorrect", ErrorKind.values()[i].ruleId(), object( rules.get( i ) ).get( "id" ) );
+		}
+
+		List<Object> results = array( run.get( "results" ) );
+		assertEquals( "Result count is incorrect", 3, results.size() );
+		Map<String, Object> result = object( results.get( 1 ) );
+		assertEquals( "Rule is incorrect", ErrorKind.UNTERMINATED.ruleId(), result.get( "ruleId" ) );
+		assertEquals( "Message is incorrect", "Unterminated section: <!--", object( result.get( "message" ) ).get( "text" ) );
+		Map<String, Object> location = object( object( array( result.get( "locations" ) ).get( 0 ) ).get( "physicalLocation" ) );
+		assertEquals( "Uri is incorrect", "first.xml", object( location.get( "artifactLocation" ) ).get( "uri" ) );
+		Map<String, Object> region = object( location.get( "region" ) );
+		assertEquals( "Line is incorrect", 4L, region.get( "startLine" ) );
+		assertEquals( "Column is incorrect", 1L, region.get( "startColumn" ) );
+		assertFalse( "Unknown column was written", object( object( object( array( object( results.get( 0 ) )
+				.get( "locations" ) ).get( 0 ) ).get( "physicalLocation" ) ).get( "region" ) ).containsKey( "startColumn" ) );
+		assertEquals( "Text log was written", 0, log.size() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SarifReport#close()}
+	 * to write a complete log with no results when no document had errors.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSarif_NoErrors() throws IOException, EmptyQueueException
+	{
+		SarifReport sarif = new SarifReport( new PrintStream( report, true, "UTF-8" ) );
+		parser.setErrorReport( sarif );
+		validate( "clean.xml", "<a/>\n" );
+		sarif.close();
+		Map<String, Object> run = object( array( object( parse( output() ) ).get( "runs" ) ).get( 0 ) );
+		assertEquals( "Results were written", 0, array( run.get( "results" ) ).size() );
+	}
+
+	private String run( ErrorReport errorReport ) throws IOException, EmptyQueueException
+	{
+		parser.setErrorReport( errorReport );
+		validate( "first.xml", FIRST );
+		validate( "second.xml", SECOND );
+		errorReport.close();
+		return output();
+	}
+
+	private void validate( String name, String document ) throws IOException, EmptyQueueException
+	{
+		parser.parseStream( name, Channels.newChannel( new ByteArrayInputStream( document.getBytes( StandardCharsets.UTF_8 ) ) ) );
+	}
+
+	private String output()
+	{
+		return new String( report.toByteArray(), StandardCharsets.UTF_8 ).replace( System.lineSeparator(), "\n" ).trim();
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static Map<String, Object> object( Object value )
+	{
+		assertTrue( "Not an object: " + value, value instanceof Map );
+		return (Map<String, Object>) value;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static List<Object> array( Object value )
+	{
+		assertTrue( "Not an array: " + value, value instanceof List );
+		return (List<Object>) value;
+	}
+
+	/**
+	 * Parses a JSON text into maps, lists, strings, longs, booleans and
+	 * nulls, failing the test if it is not exactly one JSON value.
+	 */
+	private static Object parse( String json )
+	{
+		JsonReader reader = new JsonReader( json );
+		Object value = reader.value();
+		reader.skipSpace();
+		assertEquals( "Text after the JSON value", json.length(), reader.at );
+		return value;
+	}
+
+	/**
+	 * A minimal JSON reader, enough to check the shape of the reports.
+	 */
+	private static class JsonReader
+	{
+		private final String text;
+		private int at;
+
+		JsonReader( String text )
+		{
+			this.text = text;
+		}
+
+		Object value()
+		{
+			skipSpace();
+			assertTrue( "JSON ends early", at < text.length() );
+			char c = text.charAt( at );
+			if ( c == '{' )
+			{
+				Map<String, Object> members = new LinkedHashMap<>();
+				at++;
+				skipSpace();
+				if ( !consume( '}' ) )
+				{
+					do
+					{
+						skipSpace();
+						String name = string();
+						skipSpace();
+						assertTrue( "Missing ':' at " + at, consume( ':' ) );
+						assertNull( "Repeated member " + name, members.put( name, value() ) );
+						skipSpace();
+					}
+					while ( consume( ',' ) );
+					assertTrue( "Missing '}' at " + at, consume( '}' ) );
+				}
+				return members;
+			}
+			if ( c == '[' )
+			{
+				List<Object> elements = new ArrayList<>();
+				at++;
+				skipSpace();
+				if ( !consume( ']' ) )
+				{
+					do
+					{
+						elements.add( value() );
+						skipSpace();
+					}
+					while ( consume( ',' ) );
+					assertTrue( "Missing ']' at " + at, consume( ']' ) );
+				}
+				return elements;
+			}
+			if ( c == '"' )
+			{
+				return string();
+			}
+			for ( String literal : new String[] { "true", "false", "null" } )
+			{
+				if ( text.startsWith( literal, at ) )
+				{
+					at += literal.length();
+					return literal.equals( "null" ) ? null : Boolean.valueOf( literal );
+				}
+			}
+			int start = at;
+			if ( c == '-' )
+			{
+				at++;
+			}
+			while ( at < text.length() && Character.isDigit( text.charAt( at ) ) )
+			{
+				at++;
+			}
+			assertTrue( "Not a JSON value at " + start, at > start );
+			return Long.parseLong( text.substring( start, at ) );
+		}
+
+		private String string()
+		{
+			assertTrue( "Missing '\"' at " + at, consume( '"' ) );
+			StringBuilder value = new StringBuilder();
+			while ( true )
+			{
+				assertTrue( "Unterminated string", at < text.length() );
+				char c = text.charAt( at++ );
+				if ( c == '"' )
+				{
+					return value.toString();
+				}
+				assertTrue( "Control character in string", c >= 0x20 );
+				if ( c != '\\' )
+				{
+					value.append( c );
+					continue;
+				}
+				char escape = text.charAt( at++ );
+				switch ( escape )
+				{
+				case 'n':
+					value.append( '\n' );
+					break;
+				case 'r':
+					value.append( '\r' );
+					break;
+				case 't':
+					value.append( '\t' );
+					break;
+				case 'u':
+					value.append( (char) Integer.parseInt( text.substring( at, at + 4 ), 16 ) );
+					at += 4;
+					break;
+				default:
+					assertTrue( "Bad escape \\" + escape, "\"\\/".indexOf( escape ) >= 0 );
+					value.append( escape );
+				}
+			}
+		}
+
+		private boolean consume( char c )
+		{
+			if ( at < text.length() && text.charAt( at ) == c )
+			{
+				at++;
+				return true;
+			}
+			return false;
+		}
+
+		private void skipSpace()
+		{
+			while ( at < text.length() && Character.isWhitespace( text.charAt( at ) ) )
+			{
+				at++;
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ErrorStore;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ErrorStore, which queues error log lines in memory up to a
+ * budget and spills the rest to a memory-mapped temporary file.
+ */
+public class ErrorStoreTest
+{
+	// Attributes
+	private ErrorStore store;
+
+	/**
+	 * Initializes an ErrorStore with room for a few lines in memory before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		store = new ErrorStore();
+		store.setMemoryBudget( 400 );
+	}
+
+	/**
+	 * Cleans up instances used after each test.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		store.clear();
+		store = null;
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorStore#dequeue()}
+	 * to return lines in order when they fit in memory.
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testDequeue_InMemory() throws EmptyQueueException
+	{
+		store.enqueue( "Error at line 8" );
+		store.enqueue( "<b>" );
+		assertFalse( "Spilled within the budget", store.hasSpilled() );
+		assertEquals( "First line is incorrect", "Error at line 8", store.dequeue() );
+		assertEquals( "Second line is incorrect", "<b>", store.dequeue() );
+		assertTrue( "Store is not empty", store.isEmpty() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorStore#dequeue()}
+	 * to return lines in order across the spill to disk, including lines
+	 * longer than one mapped window.
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testDequeue_AcrossSpill() throws EmptyQueueException
+	{
+		StringBuilder longLine = new StringBuilder();
+		while ( longLine.length() < 2 * 1024 * 1024 )
+		{
+			longLine.append( "<Language LanguageName=\"Basque\">" );
+		}
+		for ( int i = 0; i < 50000; i++ )
+		{
+			store.enqueue( "Error at line " + i );
+			if ( i == 25000 )
+			{
+				store.enqueue( longLine.toString() );
+			}
+		}
+		assertTrue( "Did not spill beyond the budget", store.hasSpilled() );
+		assertTrue( "Memory exceeds the budget", store.memoryBytes() <= 400 );
+		for ( int i = 0; i < 50000; i++ )
+		{
+			assertEquals( "Line is out of order", "Error at line " + i, store.dequeue() );
+			if ( i == 25000 )
+			{
+				assertEquals( "Long line is incorrect", longLine.toString(), store.dequeue() );
+			}
+		}
+		assertTrue( "Store is not empty", store.isEmpty() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorStore#dequeue()}
+	 * to throw EmptyQueueException once every line is taken.
+	 */
+	@Test
+	public void testDequeue_Empty()
+	{
+		try
+		{
+			store.dequeue();
+			fail( "Dequeue from an empty store did not throw" );
+		}
+		catch ( EmptyQueueException e )
+		{
+			assertTrue( true );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.ErrorStore#clear()}
+	 * to discard spilled lines so the store can be reused.
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testClear_Reuse() throws EmptyQueueException
+	{
+		for ( int i = 0; i < 100; i++ )
+		{
+			store.enqueue( "Error at line " + i );
+		}
+		store.clear();
+		assertTrue( "Store is not empty after clear", store.isEmpty() );
+		assertFalse( "Spill file kept after clear", store.hasSpilled() );
+		store.enqueue( "<i>" );
+		assertEquals( "Line after clear is incorrect", "<i>", store.dequeue() );
+	}
+}
@@ -0,0 +1,119 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import appDomain.InputEncoding;
+import appDomain.TranscodingChannel;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the InputEncoding detection of a document's encoding from its
+ * first bytes, and for the TranscodingChannel that reads it as UTF-8.
+ */
+public class InputEncodingTest
+{
+	private static final String DOCUMENT = "<r a=\"\u00e9\">Caf\u00e9 \ud83d\ude00</r>";
+
+	/**
+	 * Test method for {@link appDomain.InputEncoding#detect(byte[], int)}
+	 * to choose the encoding from a byte order mark.
+	 */
+	@Test
+	public void testDetect_ByteOrderMark()
+	{
+		assertEquals( "UTF-8 mark", StandardCharsets.UTF_8, detect( new byte[] { (byte) 0xef, (byte) 0xbb, (byte) 0xbf, '<' } ) );
+		assertEquals( "UTF-16 big-endian mark", StandardCharsets.UTF_16, detect( new byte[] { (byte) 0xfe, (byte) 0xff, 0, '<' } ) );
+		assertEquals( "UTF-16 little-endian mark", StandardCharsets.UTF_16, detect( new byte[] { (byte) 0xff, (byte) 0xfe, '<', 0 } ) );
+		assertEquals( "UTF-32 mark", Charset.forName( "UTF-32" ), detect( new byte[] { 0, 0, (byte) 0xfe, (byte) 0xff } ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.InputEncoding#detect(byte[], int)}
+	 * to recognize UTF-16 without a byte order mark from the layout of "<?".
+	 */
+	@Test
+	public void testDetect_Utf16WithoutMark()
+	{
+		assertEquals( "UTF-16BE", StandardCharsets.UTF_16BE, detect( "<?xml version=\"1.0\"?>".getBytes( StandardCharsets.UTF_16BE ) ) );
+		assertEquals( "UTF-16LE", StandardCharsets.UTF_16LE, detect( "<?xml version=\"1.0\"?>".getBytes( StandardCharsets.UTF_16LE ) ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.InputEncoding#detect(byte[], int)}
+	 * to read the encoding named in the XML declaration, defaulting to UTF-8.
+	 */
+	@Test
+	public void testDetect_Declaration()
+	{
+		assertEquals( "Declared Latin-1", StandardCharsets.ISO_8859_1,
+				detect( "<?xml version=\"1.0\" encoding = 'ISO-8859-1'?><r/>".getBytes( StandardCharsets.US_ASCII ) ) );
+		assertEquals( "No declaration", StandardCharsets.UTF_8, detect( "<r/>".getBytes( StandardCharsets.US_ASCII ) ) );
+		assertEquals( "No encoding", StandardCharsets.UTF_8, detect( "<?xml version=\"1.0\"?><r encoding='x'/>".getBytes( StandardCharsets.US_ASCII ) ) );
+		assertEquals( "Unknown encoding", StandardCharsets.UTF_8, detect( "<?xml encoding=\"no-such-charset\"?>".getBytes( StandardCharsets.US_ASCII ) ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.InputEncoding#isAsciiCompatible(Charset)}
+	 * to accept encodings that write markup as ASCII bytes and reject the others.
+	 */
+	@Test
+	public void testIsAsciiCompatible()
+	{
+		assertTrue( "UTF-8", InputEncoding.isAsciiCompatible( StandardCharsets.UTF_8 ) );
+		assertTrue( "Latin-1", InputEncoding.isAsciiCompatible( StandardCharsets.ISO_8859_1 ) );
+		assertFalse( "UTF-16", InputEncoding.isAsciiCompatible( StandardCharsets.UTF_16LE ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.TranscodingChannel#read(ByteBuffer)}
+	 * to yield UTF-8 for UTF-16 input read through a tiny buffer, so that
+	 * surrogate pairs are split between reads, and to be reusable.
+	 * @throws IOException
+	 */
+	@Test
+	public void testTranscode_Utf16() throws IOException
+	{
+		TranscodingChannel channel = new TranscodingChannel();
+		for ( int pass = 0; pass < 2; pass++ )
+		{
+			byte[] input = DOCUMENT.getBytes( StandardCharsets.UTF_16 );
+			Charset[] charset = new Charset[1];
+			ReadableByteChannel source = InputEncoding.detect( Channels.newChannel( new ByteArrayInputStream( input ) ), charset );
+			channel.open( source, charset[0] );
+			assertTrue( "Transcoded bytes are incorrect", Arrays.equals( DOCUMENT.getBytes( StandardCharsets.UTF_8 ), readAll( channel, 3 ) ) );
+		}
+	}
+
+	private static Charset detect( byte[] head )
+	{
+		return InputEncoding.detect( head, head.length );
+	}
+
+	private static byte[] readAll( ReadableByteChannel channel, int chunk ) throws IOException
+	{
+		ByteBuffer all = ByteBuffer.allocate( 1024 );
+		ByteBuffer buffer = ByteBuffer.allocate( chunk );
+		while ( channel.read( buffer ) != -1 )
+		{
+			buffer.flip();
+			all.put( buffer );
+			buffer.clear();
+		}
+		byte[] bytes = new byte[all.position()];
+		all.flip();
+		all.get( bytes );
+		return bytes;
+	}
+}
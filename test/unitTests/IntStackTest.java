@@ -0,0 +1,127 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.util.EmptyStackException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import implementations.MyIntStack;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the preallocated fixed-capacity MyIntStack used by the parser to
+ * bound the nesting depth.
+ */
+public class IntStackTest
+{
+	// Attributes
+	private MyIntStack stack;
+
+	/**
+	 * Initializes a MyIntStack with room for three values before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		stack = new MyIntStack( 3 );
+	}
+
+	/**
+	 * Cleans up instances used after each test.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		stack = null;
+	}
+
+	/**
+	 * Test method for {@link implementations.MyIntStack#push(int)} and
+	 * {@link implementations.MyIntStack#pop()} to return values last in, first out.
+	 */
+	@Test
+	public void testPushPop_Order()
+	{
+		stack.push( 1 );
+		stack.push( 2 );
+		assertEquals( "Peek is incorrect", 2, stack.peek() );
+		assertEquals( "Pop is incorrect", 2, stack.pop() );
+		assertEquals( "Pop is incorrect", 1, stack.pop() );
+		assertTrue( "Stack is not empty", stack.isEmpty() );
+	}
+
+	/**
+	 * Test method for {@link implementations.MyIntStack#pop()}
+	 * to throw EmptyStackException on an empty stack.
+	 */
+	@Test
+	public void testPop_Empty()
+	{
+		try
+		{
+			stack.pop();
+			fail( "Pop from an empty stack did not throw" );
+		}
+		catch ( EmptyStackException e )
+		{
+			assertTrue( true );
+		}
+	}
+
+	/**
+	 * Test method for {@link implementations.MyIntStack#stackOverflow()}
+	 * to report a full stack, which then refuses another push.
+	 */
+	@Test
+	public void testStackOverflow_AtCapacity()
+	{
+		stack.push( 1 );
+		stack.push( 2 );
+		assertFalse( "Overflow reported below capacity", stack.stackOverflow() );
+		stack.push( 3 );
+		assertTrue( "Overflow not reported at capacity", stack.stackOverflow() );
+		try
+		{
+			stack.push( 4 );
+			fail( "Push onto a full stack did not throw" );
+		}
+		catch ( IllegalStateException e )
+		{
+			assertEquals( "Size changed", 3, stack.size() );
+		}
+	}
+
+	/**
+	 * Test method for {@link implementations.MyIntStack#search(int)}
+	 * to give the 1-based position from the top.
+	 */
+	@Test
+	public void testSearch_Position()
+	{
+		stack.push( 7 );
+		stack.push( 8 );
+		stack.push( 7 );
+		assertEquals( "Nearest occurrence not found", 1, stack.search( 7 ) );
+		assertEquals( "Position is incorrect", 2, stack.search( 8 ) );
+		assertEquals( "Found a missing value", -1, stack.search( 9 ) );
+	}
+
+	/**
+	 * Test method for {@link implementations.MyIntStack#clear()}
+	 * to empty the stack while keeping its capacity.
+	 */
+	@Test
+	public void testClear_KeepsCapacity()
+	{
+		stack.push( 1 );
+		stack.clear();
+		assertTrue( "Stack is not empty", stack.isEmpty() );
+		assertEquals( "Capacity changed", 3, stack.capacity() );
+	}
+}
@@ -0,0 +1,102 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import appDomain.JsonConverter;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the JsonConverter, run as a listener of an XMLParser so that it
+ * sees a document the way it does from the command line.
+ */
+public class JsonConverterTest
+{
+	/**
+	 * Test method for {@link appDomain.JsonConverter#tag(byte[], int, int, long)}
+	 * to write nested elements as objects with their content in order, each
+	 * root element on a line of its own.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testConvert_Nesting() throws IOException, EmptyQueueException
+	{
+		String json = convert( "<Driver Name=\"usb\">\n  <File>a.sys</File>\n  <Empty/>\n  tail\n</Driver>\n" );
+		assertEquals( "JSON is incorrect",
+				"{\"#name\":\"Driver\",\"@Name\":\"usb\",\"#content\":[{\"#name\":\"File\",\"#content\":[\"a.sys\"]},{\"#name\":\"Empty\"},\"tail\"]}\n",
+				json );
+	}
+
+	/**
+	 * Test method for {@link appDomain.JsonConverter#text(java.nio.ByteBuffer, int, int)}
+	 * to decode the predefined and numeric references in text and attribute
+	 * values into UTF-8.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testConvert_Entities() throws IOException, EmptyQueueException
+	{
+		String json = convert( "<r a=\"&lt;&#65;&#x42;\">&amp;&gt;&quot;&apos; &#xE9;&#8364;&#x1F600;</r>\n" );
+		assertEquals( "JSON is incorrect",
+				"{\"#name\":\"r\",\"@a\":\"<AB\",\"#content\":[\"&>\\\"' \u00e9\u20ac\uD83D\uDE00\"]}\n",
+				json );
+	}
+
+	/**
+	 * Test method for {@link appDomain.JsonConverter#text(java.nio.ByteBuffer, int, int)}
+	 * to leave as literal text the references with no digits, for NUL, for a
+	 * surrogate, above U+10FFFF or with an unknown name.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testConvert_InvalidReferences() throws IOException, EmptyQueueException
+	{
+		String json = convert( "<r a=\"&#x;&#0;\">&#;&#x;&#0;&#x0;&#xD800;&#xDFFF;&#x110000;&nbsp;&#x41</r>\n" );
+		assertEquals( "JSON is incorrect",
+				"{\"#name\":\"r\",\"@a\":\"&#x;&#0;\",\"#content\":[\"&#;&#x;&#0;&#x0;&#xD800;&#xDFFF;&#x110000;&nbsp;&#x41\"]}\n",
+				json );
+	}
+
+	/**
+	 * Test method for {@link appDomain.JsonConverter#cdata(java.nio.ByteBuffer, int, int)}
+	 * to escape quotes, backslashes and control characters, and to take
+	 * CDATA content literally.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testConvert_Escaping() throws IOException, EmptyQueueException
+	{
+		String json = convert( "<r p=\"a\\b\">x \"y\"\ty\u0001<![CDATA[&lt; \\]]></r>\n" );
+		assertEquals( "JSON is incorrect",
+				"{\"#name\":\"r\",\"@p\":\"a\\\\b\",\"#content\":[\"x \\\"y\\\"\\ty\\u0001&lt; \\\\\"]}\n",
+				json );
+	}
+
+	private static String convert( String document ) throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		XMLParser parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+		try ( JsonConverter converter = new JsonConverter( Channels.newChannel( json ) ) )
+		{
+			parser.addListener( converter );
+			byte[] bytes = document.getBytes( StandardCharsets.UTF_8 );
+			parser.validate( Channels.newChannel( new ByteArrayInputStream( bytes ) ), bytes.length );
+		}
+		return new String( json.toByteArray(), StandardCharsets.UTF_8 );
+	}
+}
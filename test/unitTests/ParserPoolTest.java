@@ -0,0 +1,101 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ParserPool;
+import appDomain.ValidationEngine;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ParserPool and XMLParser.reset, which must hand out reused
+ * parsers that validate exactly as a new parser would.
+ */
+public class ParserPoolTest
+{
+	// Attributes
+	private ParserPool pool;
+
+	/**
+	 * Initializes a pool keeping at most two idle parsers before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		pool = new ParserPool( ValidationEngine.standard(), 2 );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ParserPool#acquire()}
+	 * to hand out the most recently released parser first, and to keep no
+	 * more idle parsers than its maximum.
+	 */
+	@Test
+	public void testAcquire_Reuse()
+	{
+		XMLParser first = pool.acquire();
+		XMLParser second = pool.acquire();
+		XMLParser third = pool.acquire();
+		assertEquals( "Pool is not empty", 0, pool.idleCount() );
+		assertNotSame( "Handed out a parser twice", first, second );
+
+		pool.release( first );
+		pool.release( second );
+		pool.release( third );
+		assertEquals( "Idle count is incorrect", 2, pool.idleCount() );
+		assertSame( "Most recent parser was not handed out first", second, pool.acquire() );
+		assertSame( "Older parser was not kept", first, pool.acquire() );
+		assertEquals( "Pool is not empty", 0, pool.idleCount() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ParserPool#release(XMLParser)}
+	 * to clear the errors and open tags of the last input, so the next
+	 * input is validated as if by a new parser.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testRelease_Resets() throws IOException, EmptyQueueException
+	{
+		XMLParser parser = pool.acquire();
+		assertFalse( "Errors not found", validate( parser, "<a>\n<b>\n</c>\n" ).isEmpty() );
+		assertFalse( "Errors not found", validate( parser, "<a>\n<b>\n" ).isEmpty() );
+		validate( parser, "<a>\n<b>\n</c>\n" );
+		pool.release( parser );
+		assertFalse( "Errors kept after release", parser.hasErrors() );
+
+		XMLParser reused = pool.acquire();
+		assertSame( "Parser was not reused", parser, reused );
+		assertTrue( "Reused parser found errors in a valid document", validate( reused, "<d>\n<e/>\n</d>\n" ).isEmpty() );
+
+		String broken = "<r>\n<a>\n</b>\n</r>\n";
+		XMLParser fresh = new XMLParser( ValidationEngine.standard(), System.out );
+		assertEquals( "Reused parser differs from a new one", validate( fresh, broken ), validate( reused, broken ) );
+	}
+
+	private static List<String> validate( XMLParser parser, String document ) throws IOException, EmptyQueueException
+	{
+		byte[] bytes = document.getBytes( StandardCharsets.UTF_8 );
+		parser.validate( Channels.newChannel( new ByteArrayInputStream( bytes ) ), bytes.length );
+		List<String> errors = new ArrayList<>();
+		while ( parser.hasErrors() )
+		{
+			errors.add( parser.nextError() );
+		}
+		return errors;
+	}
+}
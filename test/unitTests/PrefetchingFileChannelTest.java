@@ -0,0 +1,138 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.PrefetchingFileChannel;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the PrefetchingFileChannel, which must yield exactly the bytes of
+ * the file, and for validation through it.
+ */
+public class PrefetchingFileChannelTest
+{
+	// Attributes
+	private static final int CHUNK_SIZE = 8192;
+	private Path file;
+
+	/**
+	 * Creates the file each test reads.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		file = Files.createTempFile( "prefetch", ".xml" );
+	}
+
+	/**
+	 * Removes the file.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		Files.delete( file );
+	}
+
+	/**
+	 * Test method for {@link appDomain.PrefetchingFileChannel#read(ByteBuffer)}
+	 * to yield every byte of a file that ends part way through a chunk, for
+	 * reads smaller and larger than a chunk.
+	 * @throws IOException
+	 */
+	@Test
+	public void testRead_WholeFile() throws IOException
+	{
+		byte[] content = new byte[3 * CHUNK_SIZE + 123];
+		for ( int i = 0; i < content.length; i++ )
+		{
+			content[i] = (byte) ( i * 31 + i / 7 );
+		}
+		Files.write( file, content );
+
+		assertArrayEquals( "Bytes differ for small reads", content, readAll( 1000 ) );
+		assertArrayEquals( "Bytes differ for large reads", content, readAll( 3 * CHUNK_SIZE ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.PrefetchingFileChannel#read(ByteBuffer)}
+	 * to report the end of an empty file, and of a file exactly one chunk long.
+	 * @throws IOException
+	 */
+	@Test
+	public void testRead_Ends() throws IOException
+	{
+		assertEquals( "Empty file yielded bytes", 0, readAll( 1000 ).length );
+
+		Files.write( file, new byte[CHUNK_SIZE] );
+		assertEquals( "Length is incorrect", CHUNK_SIZE, readAll( 1000 ).length );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setAsyncIO(boolean)}
+	 * to print the same log reading through the prefetching channel as
+	 * reading the file directly.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testParseFile_AsyncSameAsSync() throws IOException, EmptyQueueException
+	{
+		StringBuilder document = new StringBuilder( "<r>\n" );
+		for ( int i = 0; document.length() < 300 * 1024; i++ )
+		{
+			document.append( "<e n=\"" ).append( i ).append( "\"/>\n" );
+			if ( i % 5000 == 0 )
+			{
+				document.append( "<a>\n<b>\n</a>\n" );
+			}
+		}
+		document.append( "</r>\n" );
+		Files.write( file, document.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+		String sync = parseFile( false );
+		assertTrue( "Errors not found", sync.contains( "<b>" ) );
+		assertEquals( "Logs differ", sync, parseFile( true ) );
+	}
+
+	private byte[] readAll( int readSize ) throws IOException
+	{
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate( readSize );
+		try ( PrefetchingFileChannel channel = new PrefetchingFileChannel( file, CHUNK_SIZE ) )
+		{
+			while ( channel.read( buffer ) != -1 )
+			{
+				read.write( buffer.array(), 0, buffer.position() );
+				buffer.clear();
+			}
+			assertEquals( "Read after the end yielded bytes", -1, channel.read( buffer ) );
+		}
+		return read.toByteArray();
+	}
+
+	private String parseFile( boolean asyncIO ) throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		XMLParser parser = new XMLParser( new PrintStream( log, true, "UTF-8" ) );
+		parser.setAsyncIO( asyncIO );
+		parser.parseFile( file.toString() );
+		return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+	}
+}
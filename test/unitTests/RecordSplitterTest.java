@@ -0,0 +1,156 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the RecordSplitter, run through XMLParser.setSplit, checking the
+ * bytes of the shards and manifest it writes.
+ */
+public class RecordSplitterTest
+{
+	// Attributes
+	private static final String DOCUMENT = "<?xml version=\"1.0\"?>\n<!-- c -->\n<root a=\"1\">\n"
+			+ "  <rec id=\"1\">one</rec>\n  <rec id=\"2\"><x/>two</rec>\n  <other/>\n"
+			+ "  <rec id=\"3\">three and more text</rec>\n</root>\n";
+	private static final String PROLOG = "<?xml version=\"1.0\"?>\n<!-- c -->\n<root a=\"1\">\n";
+	private Path directory;
+	private Path file;
+
+	/**
+	 * Creates a directory for the document and its shards before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		directory = Files.createTempDirectory( "split" );
+		file = directory.resolve( "d.xml" );
+	}
+
+	/**
+	 * Removes the directory and everything written to it.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		try ( DirectoryStream<Path> files = Files.newDirectoryStream( directory ) )
+		{
+			for ( Path written : files )
+			{
+				Files.delete( written );
+			}
+		}
+		Files.delete( directory );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setSplit(int, String)}
+	 * to put each child of the root whole into the shard holding the fewest
+	 * bytes, each shard wrapped in the prolog and root tags, and to list the
+	 * shards in the manifest.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSplit_RootChildren() throws IOException, EmptyQueueException
+	{
+		split( DOCUMENT, 2, null );
+		assertEquals( "First shard is incorrect", PROLOG + "<rec id=\"1\">one</rec>\n<other/>\n</root>\n", read( "d.xml.shard-0.xml" ) );
+		assertEquals( "Second shard is incorrect",
+				PROLOG + "<rec id=\"2\"><x/>two</rec>\n<rec id=\"3\">three and more text</rec>\n</root>\n", read( "d.xml.shard-1.xml" ) );
+		assertEquals( "Manifest is incorrect", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<ShardManifest source=\"d.xml\" records=\"4\" complete=\"true\">\n"
+				+ "  <Shard file=\"d.xml.shard-0.xml\" records=\"2\" bytes=\"29\"/>\n"
+				+ "  <Shard file=\"d.xml.shard-1.xml\" records=\"2\" bytes=\"62\"/>\n"
+				+ "</ShardManifest>\n", read( "d.xml.shards.xml" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setSplit(int, String)}
+	 * to take only the outermost elements with the record name.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSplit_NamedElement() throws IOException, EmptyQueueException
+	{
+		split( DOCUMENT.replace( "<other/>", "<other><rec id=\"4\"/></other><record/>" ), 1, "rec" );
+		assertEquals( "Shard is incorrect", PROLOG + "<rec id=\"1\">one</rec>\n<rec id=\"2\"><x/>two</rec>\n"
+				+ "<rec id=\"4\"/>\n<rec id=\"3\">three and more text</rec>\n</root>\n", read( "d.xml.shard-0.xml" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setSplit(int, String)}
+	 * to copy every record of a document several chunks long exactly once,
+	 * including records that straddle chunks, and to balance the shards.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSplit_LargeDocument() throws IOException, EmptyQueueException
+	{
+		StringBuilder document = new StringBuilder( "<root>\n" );
+		List<String> records = new ArrayList<>();
+		for ( int i = 0; document.length() < 400 * 1024; i++ )
+		{
+			String record = "<rec n=\"" + i + "\">" + ( i % 26 == 0 ? "a long record among short ones" : "b" ) + "</rec>";
+			records.add( record );
+			document.append( "  " ).append( record ).append( '\n' );
+		}
+		split( document.append( "</root>\n" ).toString(), 3, null );
+
+		List<String> copied = new ArrayList<>();
+		int smallest = Integer.MAX_VALUE;
+		int largest = 0;
+		for ( int k = 0; k < 3; k++ )
+		{
+			String shard = read( "d.xml.shard-" + k + ".xml" );
+			assertTrue( "Shard is not wrapped", shard.startsWith( "<root>\n" ) && shard.endsWith( "</root>\n" ) );
+			String[] lines = shard.split( "\n" );
+			for ( int i = 1; i < lines.length - 1; i++ )
+			{
+				copied.add( lines[i] );
+			}
+			smallest = Math.min( smallest, shard.length() );
+			largest = Math.max( largest, shard.length() );
+		}
+		assertTrue( "Shards are unbalanced", largest - smallest < 100 );
+		Collections.sort( records );
+		Collections.sort( copied );
+		assertEquals( "Records are incorrect", records, copied );
+	}
+
+	private void split( String document, int shards, String element ) throws IOException, EmptyQueueException
+	{
+		Files.write( file, document.getBytes( StandardCharsets.UTF_8 ) );
+		XMLParser parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+		parser.setSplit( shards, element );
+		parser.parseFile( file.toString() );
+	}
+
+	private String read( String name ) throws IOException
+	{
+		return new String( Files.readAllBytes( directory.resolve( name ) ), StandardCharsets.UTF_8 );
+	}
+}
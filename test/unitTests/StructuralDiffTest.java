@@ -0,0 +1,110 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import appDomain.StructuralDiff;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the StructuralDiff, checking the report it prints for pairs of
+ * documents.
+ */
+public class StructuralDiffTest
+{
+	/**
+	 * Test method for {@link appDomain.StructuralDiff#compare(String, java.nio.channels.ReadableByteChannel, String, java.nio.channels.ReadableByteChannel, PrintStream)}
+	 * to find no differences when only text, layout and attribute order differ.
+	 * @throws IOException
+	 */
+	@Test
+	public void testCompare_Same() throws IOException
+	{
+		String report = compare( "<r>\n<a x=\"1\" y=\"2\">text</a>\n</r>\n", "<r><a y=\"2\" x=\"1\">other</a></r>",
+				StandardCharsets.UTF_8, 10 );
+		assertEquals( "Report is incorrect", "Comparing a.xml with b.xml\nNo structural differences.\n", report );
+	}
+
+	/**
+	 * Test method for {@link appDomain.StructuralDiff#compare(String, java.nio.channels.ReadableByteChannel, String, java.nio.channels.ReadableByteChannel, PrintStream)}
+	 * to report changed, removed and added attributes and a renamed element.
+	 * @throws IOException
+	 */
+	@Test
+	public void testCompare_Changes() throws IOException
+	{
+		String report = compare( "<r>\n<a x=\"1\" y=\"2\"/>\n<b/>\n</r>\n", "<r>\n<a x=\"3\" z=\"4\"/>\n<c/>\n</r>\n",
+				StandardCharsets.UTF_8, 10 );
+		assertEquals( "Report is incorrect", "Comparing a.xml with b.xml\n"
+				+ "a.xml:2 b.xml:2: attribute x changed from \"1\" to \"3\" in <a>\n"
+				+ "a.xml:2 b.xml:2: attribute y removed from <a>\n"
+				+ "a.xml:2 b.xml:2: attribute z=\"4\" added to <a>\n"
+				+ "a.xml:3 b.xml:3: <b> became <c>\n"
+				+ "4 differences found.\n", report );
+	}
+
+	/**
+	 * Test method for {@link appDomain.StructuralDiff#compare(String, java.nio.channels.ReadableByteChannel, String, java.nio.channels.ReadableByteChannel, PrintStream)}
+	 * to report an inserted element once, not each tag inside it, and to stop
+	 * at the maximum number of differences.
+	 * @throws IOException
+	 */
+	@Test
+	public void testCompare_InsertedAndMaximum() throws IOException
+	{
+		String report = compare( "<r>\n<a/>\n</r>\n", "<r>\n<n>\n<m/>\n</n>\n<a/>\n</r>\n", StandardCharsets.UTF_8, 10 );
+		assertEquals( "Report is incorrect", "Comparing a.xml with b.xml\n"
+				+ "b.xml:2: element <n> only in b.xml\n"
+				+ "1 difference found.\n", report );
+
+		report = compare( "<r><a/><b/><c/></r>", "<r><x/><y/><z/></r>", StandardCharsets.UTF_8, 2 );
+		assertTrue( "Did not stop at the maximum", report.endsWith( "Stopped after 2 differences.\n" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.StructuralDiff#compare(String, java.nio.channels.ReadableByteChannel, String, java.nio.channels.ReadableByteChannel, PrintStream)}
+	 * to compare a UTF-16 document with the same document in UTF-8 as equal,
+	 * and to print names and values from UTF-16 as text.
+	 * @throws IOException
+	 */
+	@Test
+	public void testCompare_Utf16() throws IOException
+	{
+		String report = compare( "<r>\n<\u00e9 v=\"\u00fc\"/>\n</r>\n", "<r>\n<\u00e9 v=\"\u00fc\"/>\n</r>\n",
+				StandardCharsets.UTF_16, 10 );
+		assertEquals( "Report is incorrect", "Comparing a.xml with b.xml\nNo structural differences.\n", report );
+
+		report = compare( "<r>\n<\u00e9 v=\"\u00fc\"/>\n</r>\n", "<r>\n<\u00e9 v=\"x\"/>\n</r>\n", StandardCharsets.UTF_16, 10 );
+		assertEquals( "Report is incorrect", "Comparing a.xml with b.xml\n"
+				+ "a.xml:2 b.xml:2: attribute v changed from \"\u00fc\" to \"x\" in <\u00e9>\n"
+				+ "1 difference found.\n", report );
+	}
+
+	/**
+	 * Compares a document in UTF-8 with a document in the given encoding.
+	 */
+	private static String compare( String a, String b, Charset encodingB, int maxDifferences ) throws IOException
+	{
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream( report, true, "UTF-8" );
+		new StructuralDiff( maxDifferences ).compare( "a.xml", channel( a.getBytes( StandardCharsets.UTF_8 ) ), "b.xml",
+				channel( b.getBytes( encodingB ) ), out );
+		return new String( report.toByteArray(), StandardCharsets.UTF_8 ).replace( System.lineSeparator(), "\n" );
+	}
+
+	private static ReadableByteChannel channel( byte[] bytes )
+	{
+		return Channels.newChannel( new ByteArrayInputStream( bytes ) );
+	}
+}
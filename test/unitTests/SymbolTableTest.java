@@ -0,0 +1,133 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.SymbolTable;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the open-addressing SymbolTable used to give tag and attribute
+ * names dense integer ids.
+ */
+public class SymbolTableTest
+{
+	// Attributes
+	private SymbolTable table;
+	private byte[] buffer;
+
+	/**
+	 * Initializes an empty table and a buffer holding a few names before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		table = new SymbolTable();
+		buffer = "<Driver FolderName=\"x\">".getBytes( StandardCharsets.US_ASCII );
+	}
+
+	/**
+	 * Cleans up instances used after each test.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		table = null;
+		buffer = null;
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#intern(byte[], int, int)}
+	 * to give each new name the next dense id.
+	 */
+	@Test
+	public void testIntern_DenseIds()
+	{
+		assertEquals( "Failed to assign first id", 0, table.intern( buffer, 1, 6 ) );
+		assertEquals( "Failed to assign second id", 1, table.intern( buffer, 8, 10 ) );
+		assertEquals( "Size is incorrect", 2, table.size() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#intern(byte[], int, int)}
+	 * to return the existing id for a name seen before.
+	 */
+	@Test
+	public void testIntern_Existing()
+	{
+		int id = table.intern( "Driver" );
+		assertEquals( "Failed to find existing name", id, table.intern( buffer, 1, 6 ) );
+		assertEquals( "Size is incorrect", 1, table.size() );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#lookup(byte[], int, int)}
+	 * to return -1 for a name that was never interned.
+	 */
+	@Test
+	public void testLookup_Missing()
+	{
+		table.intern( "Driver" );
+		assertEquals( "Found a name that was not added", -1, table.lookup( buffer, 8, 10 ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#name(int)}
+	 * to return the name held under an id, across table growth.
+	 */
+	@Test
+	public void testName_AfterGrowth()
+	{
+		for ( int i = 0; i < 500; i++ )
+		{
+			assertEquals( "Id is incorrect", i, table.intern( "tag" + i ) );
+		}
+		assertEquals( "Name is incorrect", "tag0", table.name( 0 ) );
+		assertEquals( "Name is incorrect", "tag499", table.name( 499 ) );
+		assertEquals( "Failed to find name after growth", 250, table.intern( "tag250" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#freeze()}
+	 * to reject new names once frozen.
+	 */
+	@Test
+	public void testFreeze_RejectsNewName()
+	{
+		table.intern( "Driver" );
+		table.freeze();
+		assertEquals( "Failed to find existing name", 0, table.intern( "Driver" ) );
+		try
+		{
+			table.intern( "Language" );
+			fail( "Frozen table accepted a new name" );
+		}
+		catch ( UnsupportedOperationException e )
+		{
+			assertTrue( true );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.SymbolTable#SymbolTable(SymbolTable)}
+	 * to copy a frozen table into one that accepts new names.
+	 */
+	@Test
+	public void testCopy_Unfrozen()
+	{
+		table.intern( "Driver" );
+		table.freeze();
+		SymbolTable copy = new SymbolTable( table );
+		assertEquals( "Copy changed an id", 0, copy.intern( "Driver" ) );
+		assertEquals( "Copy rejected a new name", 1, copy.intern( "Language" ) );
+		assertEquals( "Copy changed the original", 1, table.size() );
+	}
+}
@@ -0,0 +1,251 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import appDomain.TagHandler;
+import appDomain.TagScanner;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the TagScanner, which must hand over the same tags, lines, text
+ * and CDATA content however the input is cut into chunks.
+ */
+public class TagScannerTest
+{
+	private static final String DOCUMENT =
+			"<?xml version=\"1.0\"?>\n"
+			+ "<!DOCTYPE r [\n"
+			+ "<!ELEMENT r ANY>\n"
+			+ "]>\n"
+			+ "<r a=\"1\">\n"
+			+ "  <!-- a -- comment -> with > inside -->\n"
+			+ "  <b>x</b><![CDATA[ <not-a-tag> ]] ]>x]]]>\n"
+			+ "  <c\n"
+			+ "   d=\"2\"/>\n"
+			+ "</r>\n";
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#feed(ByteBuffer)}
+	 * to skip the declaration, DOCTYPE, comment and CDATA section, and to
+	 * report each tag with its line and offset.
+	 */
+	@Test
+	public void testFeed_Whole()
+	{
+		List<String> events = scan( bytes( DOCUMENT ), DOCUMENT.length() );
+		List<String> expected = new ArrayList<>();
+		expected.add( "text \n\n" );
+		expected.add( tag( "<r a=\"1\">", 5 ) );
+		expected.add( "text \n  \n  " );
+		expected.add( tag( "<b>", 7 ) );
+		expected.add( "text x" );
+		expected.add( tag( "</b>", 7 ) );
+		expected.add( "cdata  <not-a-tag> ]] ]>x]" );
+		expected.add( "text \n  " );
+		expected.add( tag( "<c\n   d=\"2\"/>", 8 ) );
+		expected.add( "text \n" );
+		expected.add( tag( "</r>", 10 ) );
+		expected.add( "text \n" );
+		expected.add( "end 10" );
+		assertEquals( "Scanned events are incorrect", expected, events );
+	}
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#feed(ByteBuffer)}
+	 * to report the same events when the input arrives one byte at a time,
+	 * so every tag, terminator and held-back CDATA byte straddles chunks.
+	 */
+	@Test
+	public void testFeed_OneByteAtATime()
+	{
+		byte[] document = bytes( DOCUMENT );
+		List<String> whole = scan( document, document.length );
+		assertEquals( "Byte-at-a-time events differ", whole, scan( document, 1 ) );
+		for ( int size = 2; size < 12; size++ )
+		{
+			assertEquals( "Events differ for chunks of " + size + " bytes", whole, scan( document, size ) );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#finish()}
+	 * to report a comment left open at the end of the input with the line
+	 * and column of its opener.
+	 */
+	@Test
+	public void testFinish_Unterminated()
+	{
+		byte[] document = bytes( "<r>\n  <!-- never closed\n" );
+		for ( int size = 1; size <= document.length; size += document.length - 1 )
+		{
+			List<String> events = scan( document, size );
+			assertEquals( "Unterminated comment is incorrect", "unterminated <!-- 2:3", events.get( events.size() - 2 ) );
+			assertEquals( "End line is incorrect", "end 2", events.get( events.size() - 1 ) );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#finish()}
+	 * to report a tag left open at the end of the input, with its first bytes
+	 * as the opener.
+	 */
+	@Test
+	public void testFinish_UnterminatedTag()
+	{
+		byte[] document = bytes( "<Root>\n<a b=\"1\"" );
+		for ( int size = 1; size <= document.length; size++ )
+		{
+			List<String> events = scan( document, size );
+			assertEquals( "Unterminated tag is incorrect", "unterminated <a b=\"1\" 2:1", events.get( events.size() - 2 ) );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#setMaxTagLength(int)}
+	 * to report a tag longer than the maximum once, skip it up to its '>'
+	 * without collecting it, and carry on with the next tag on the right line.
+	 */
+	@Test
+	public void testFeed_TooLong()
+	{
+		StringBuilder text = new StringBuilder( "<r>\n<a x=\"" );
+		for ( int i = 0; i < 300; i++ )
+		{
+			text.append( i % 50 == 49 ? '\n' : 'y' );
+		}
+		text.append( "\">\n<b/></r>" );
+		byte[] document = bytes( text.toString() );
+		List<String> expected = new ArrayList<>();
+		expected.add( "tag <r> 1 @0" );
+		expected.add( "text \n" );
+		expected.add( "too long " + text.substring( 4, 4 + 64 ) + " 2:1" );
+		expected.add( "text \n" );
+		expected.add( "tag <b/> 9 @" + text.indexOf( "<b/>" ) );
+		expected.add( "tag </r> 9 @" + text.indexOf( "</r>" ) );
+		expected.add( "end 9" );
+		for ( int size : new int[] { 1, 7, 64, document.length } )
+		{
+			assertEquals( "Events differ for chunks of " + size + " bytes", expected, scan( document, size, 100 ) );
+		}
+
+		// A tag of exactly the maximum length is still collected
+		byte[] fits = bytes( "<a x=\"" + text.substring( 10, 10 + 100 - 8 ) + "\">" );
+		assertEquals( "Tag of the maximum length is incorrect", 100, fits.length );
+		assertTrue( "Tag of the maximum length was not collected", scan( fits, 3, 100 ).get( 0 ).startsWith( "tag <a x=" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.TagScanner#endLine()}
+	 * to count a last line that has no newline.
+	 */
+	@Test
+	public void testEndLine_NoFinalNewline()
+	{
+		List<String> events = scan( bytes( "<r>\n</r>" ), 3 );
+		assertEquals( "End line is incorrect", "end 2", events.get( events.size() - 1 ) );
+	}
+
+	private static String tag( String text, int line )
+	{
+		return "tag " + text + " " + line + " @" + DOCUMENT.indexOf( text );
+	}
+
+	/**
+	 * Feeds the document in chunks of the given size, each in its own buffer,
+	 * and returns the events the handler saw. Consecutive text or CDATA
+	 * callbacks are joined, since where a run is cut depends on the chunks.
+	 */
+	private static List<String> scan( byte[] document, int chunkSize )
+	{
+		return scan( document, chunkSize, TagScanner.DEFAULT_MAX_TAG_LENGTH );
+	}
+
+	private static List<String> scan( byte[] document, int chunkSize, int maxTagLength )
+	{
+		Recorder recorder = new Recorder();
+		TagScanner scanner = new TagScanner( recorder );
+		scanner.setReportText( true );
+		scanner.setMaxTagLength( maxTagLength );
+		for ( int from = 0; from < document.length; from += chunkSize )
+		{
+			int length = Math.min( chunkSize, document.length - from );
+			ByteBuffer chunk = ByteBuffer.allocate( length );
+			chunk.put( document, from, length );
+			chunk.flip();
+			scanner.feed( chunk );
+		}
+		scanner.finish();
+		recorder.events.add( "end " + scanner.endLine() );
+		return recorder.events;
+	}
+
+	private static byte[] bytes( String text )
+	{
+		return text.getBytes( StandardCharsets.US_ASCII );
+	}
+
+	/**
+	 * Records every callback as a line of text.
+	 */
+	private static class Recorder implements TagHandler
+	{
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public void tag( byte[] text, int length, int line, long offset )
+		{
+			events.add( "tag " + new String( text, 0, length, StandardCharsets.US_ASCII ) + " " + line + " @" + offset );
+		}
+
+		@Override
+		public void unterminated( byte[] opener, int length, int line, int column )
+		{
+			events.add( "unterminated " + new String( opener, 0, length, StandardCharsets.US_ASCII ) + " " + line + ":" + column );
+		}
+
+		@Override
+		public void tooLong( byte[] start, int length, int line, int column )
+		{
+			events.add( "too long " + new String( start, 0, length, StandardCharsets.US_ASCII ) + " " + line + ":" + column );
+		}
+
+		@Override
+		public void text( ByteBuffer chunk, int from, int to )
+		{
+			append( "text ", chunk, from, to );
+		}
+
+		@Override
+		public void cdata( ByteBuffer chunk, int from, int to )
+		{
+			append( "cdata ", chunk, from, to );
+		}
+
+		private void append( String kind, ByteBuffer chunk, int from, int to )
+		{
+			StringBuilder run = new StringBuilder();
+			int last = events.size() - 1;
+			if ( last >= 0 && events.get( last ).startsWith( kind ) )
+			{
+				run.append( events.remove( last ) );
+			}
+			else
+			{
+				run.append( kind );
+			}
+			for ( int i = from; i < to; i++ )
+			{
+				run.append( (char) chunk.get( i ) );
+			}
+			events.add( run.toString() );
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ValidationDaemon;
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ValidationDaemon, run on a free loopback port with its secret
+ * written to a temporary home directory. A request must get back the same
+ * error log as a standalone run.
+ */
+public class ValidationDaemonTest
+{
+	// Attributes
+	private String savedHome;
+	private Path home;
+	private Path document;
+	private int port;
+	private Thread daemon;
+
+	/**
+	 * Starts a daemon and waits until it accepts connections.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		savedHome = System.getProperty( "user.home" );
+		home = Files.createTempDirectory( "daemon" );
+		System.setProperty( "user.home", home.toString() );
+		document = home.resolve( "doc.xml" );
+		Files.write( document, "<a>\n<b>\n</a>\n".getBytes( StandardCharsets.UTF_8 ) );
+		try ( ServerSocket probe = new ServerSocket( 0 ) )
+		{
+			port = probe.getLocalPort();
+		}
+
+		daemon = new Thread( () -> {
+			try
+			{
+				new ValidationDaemon( port ).serve();
+			}
+			catch ( IOException e )
+			{
+				// stopped by tearDown
+			}
+		} );
+		daemon.setDaemon( true );
+		daemon.start();
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while ( true )
+		{
+			try ( Socket probe = new Socket( InetAddress.getLoopbackAddress(), port ) )
+			{
+				if ( Files.exists( secretPath() ) )
+				{
+					break;
+				}
+			}
+			catch ( IOException e )
+			{
+				// not listening yet
+			}
+			assertTrue( "Daemon did not start", System.currentTimeMillis() < deadline );
+			Thread.sleep( 20 );
+		}
+	}
+
+	/**
+	 * Stops the daemon and removes the temporary files.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		daemon.interrupt();	// closes the listening channel
+		daemon.join( 5000 );
+		Files.deleteIfExists( secretPath() );
+		Files.deleteIfExists( document );
+		Files.deleteIfExists( home );
+		System.setProperty( "user.home", savedHome );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationDaemon#serve()}
+	 * to answer a request carrying the secret with the error log a
+	 * standalone run prints for the file.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testServe_SameLogAsStandalone() throws IOException, EmptyQueueException
+	{
+		String secret = new String( Files.readAllBytes( secretPath() ), StandardCharsets.UTF_8 );
+		String log = request( secret + "\n" + document + "\n" + document.toAbsolutePath() + "\n" );
+		assertTrue( "Log reports no error", log.contains( "<b>" ) );
+		assertEquals( "Log differs from a standalone run", standalone(), log );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationDaemon#serve()}
+	 * to close the connection without reading the file for a request with
+	 * the wrong secret.
+	 * @throws IOException
+	 */
+	@Test
+	public void testServe_WrongSecret() throws IOException
+	{
+		assertEquals( "Answered a request with the wrong secret", "",
+				request( "not-the-secret\n" + document + "\n" + document.toAbsolutePath() + "\n" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationDaemon#runClient(String, int)}
+	 * to print the daemon's log for a file as a standalone run would.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testRunClient() throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		PrintStream saved = System.out;
+		System.setOut( new PrintStream( printed, true, "UTF-8" ) );
+		try
+		{
+			ValidationDaemon.runClient( document.toString(), port );
+		}
+		finally
+		{
+			System.setOut( saved );
+		}
+		assertEquals( "Client output differs from a standalone run", standalone(),
+				new String( printed.toByteArray(), StandardCharsets.UTF_8 ) );
+	}
+
+	private String request( String lines ) throws IOException
+	{
+		try ( Socket socket = new Socket( InetAddress.getLoopbackAddress(), port ) )
+		{
+			OutputStream out = socket.getOutputStream();
+			out.write( lines.getBytes( StandardCharsets.UTF_8 ) );
+			out.flush();
+			InputStream in = socket.getInputStream();
+			ByteArrayOutputStream log = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ( ( n = in.read( buffer ) ) != -1 )
+			{
+				log.write( buffer, 0, n );
+			}
+			return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+		}
+	}
+
+	/**
+	 * Returns what a standalone run prints for the document.
+	 */
+	private String standalone() throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		new XMLParser( new PrintStream( log, true, "UTF-8" ) ).parseFile( document.toString() );
+		return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private Path secretPath()
+	{
+		return home.resolve( ".xmlparser-daemon-" + port + ".secret" );
+	}
+}
@@ -0,0 +1,112 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import appDomain.CancellationToken;
+import appDomain.TagHandler;
+import appDomain.ValidationPipeline;
+import appDomain.ValidationProgress;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ValidationPipeline, which must hand the validator the same
+ * tags as the scanner finds, however long, through fixed-size token slots.
+ */
+public class ValidationPipelineTest
+{
+	/**
+	 * Test method for {@link appDomain.ValidationPipeline#run(java.nio.channels.ReadableByteChannel, CancellationToken, ValidationProgress)}
+	 * to join tags longer than a token slot, across several chunks of input.
+	 * @throws IOException
+	 */
+	@Test
+	public void testRun_LongTags() throws IOException
+	{
+		StringBuilder document = new StringBuilder( "<r>\n" );
+		List<String> expected = new ArrayList<>();
+		expected.add( "tag <r>" );
+		for ( int i = 0; document.length() < 3 * ValidationPipeline.CHUNK_SIZE; i++ )
+		{
+			StringBuilder tag = new StringBuilder( "<e n=\"" );
+			for ( int k = 0; k < i % 700; k++ )
+			{
+				tag.append( (char) ( 'a' + k % 26 ) );
+			}
+			tag.append( "\"/>" );
+			document.append( tag ).append( '\n' );
+			expected.add( "tag " + tag );
+		}
+		document.append( "</r>\n" );
+		expected.add( "tag </r>" );
+
+		assertEquals( "Tags are incorrect", expected, run( document.toString(), 1024 ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationPipeline#setMaxTagLength(int)}
+	 * to pass on a tag over the maximum as too long, and a tag left open at
+	 * the end as unterminated.
+	 * @throws IOException
+	 */
+	@Test
+	public void testRun_TooLongAndUnterminated() throws IOException
+	{
+		StringBuilder document = new StringBuilder( "<r>\n<a x=\"" );
+		for ( int i = 0; i < 2 * ValidationPipeline.CHUNK_SIZE; i++ )
+		{
+			document.append( 'y' );
+		}
+		document.append( "\">\n<b c=\"1\"" );
+
+		List<String> events = run( document.toString(), 200 );
+		assertEquals( "Event count is incorrect", 3, events.size() );
+		assertEquals( "Too long tag is incorrect", "too long " + document.substring( 4, 4 + 64 ) + " 2:1", events.get( 1 ) );
+		assertEquals( "Unterminated tag is incorrect", "unterminated <b c=\"1\" 3:1", events.get( 2 ) );
+	}
+
+	private static List<String> run( String document, int maxTagLength ) throws IOException
+	{
+		Recorder recorder = new Recorder();
+		ValidationPipeline pipeline = new ValidationPipeline( recorder );
+		pipeline.setMaxTagLength( maxTagLength );
+		byte[] bytes = document.getBytes( StandardCharsets.US_ASCII );
+		pipeline.run( Channels.newChannel( new ByteArrayInputStream( bytes ) ), CancellationToken.NONE, new ValidationProgress() );
+		return recorder.events;
+	}
+
+	/**
+	 * Records every callback as a line of text.
+	 */
+	private static class Recorder implements TagHandler
+	{
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public void tag( byte[] text, int length, int line, long offset )
+		{
+			events.add( "tag " + new String( text, 0, length, StandardCharsets.US_ASCII ) );
+		}
+
+		@Override
+		public void unterminated( byte[] opener, int length, int line, int column )
+		{
+			events.add( "unterminated " + new String( opener, 0, length, StandardCharsets.US_ASCII ) + " " + line + ":" + column );
+		}
+
+		@Override
+		public void tooLong( byte[] start, int length, int line, int column )
+		{
+			events.add( "too long " + new String( start, 0, length, StandardCharsets.US_ASCII ) + " " + line + ":" + column );
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ProgressReporter;
+import appDomain.ValidationProgress;
+import appDomain.XMLParser;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ValidationProgress counters a parser publishes and the
+ * status line the ProgressReporter prints from them.
+ */
+public class ValidationProgressTest
+{
+	// Attributes
+	private static final int TAGS = 30000;
+	private XMLParser parser;
+	private String document;
+
+	/**
+	 * Initializes a parser and a document of several chunks before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+		StringBuilder text = new StringBuilder( "<r>\n" );
+		for ( int i = 2; i < TAGS; i++ )
+		{
+			text.append( "<e/>\n" );
+		}
+		document = text.append( "</r>\n" ).toString();
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationProgress#bytesProcessed()}
+	 * to count every byte and tag of a finished document of known size,
+	 * leaving no time remaining.
+	 * @throws IOException
+	 */
+	@Test
+	public void testProgress_KnownSize() throws IOException
+	{
+		byte[] bytes = document.getBytes( StandardCharsets.UTF_8 );
+		validate( bytes, bytes.length );
+		ValidationProgress progress = parser.progress();
+		assertEquals( "Byte count is incorrect", bytes.length, progress.bytesProcessed() );
+		assertEquals( "Tag count is incorrect", TAGS, progress.tagsProcessed() );
+		assertEquals( "Total is incorrect", bytes.length, progress.totalBytes() );
+		assertFalse( "Still running", progress.isRunning() );
+		assertEquals( "Time remains", 0.0, progress.etaSeconds(), 0.0 );
+
+		String status = report( "doc.xml" );
+		assertTrue( "Status is incorrect: " + status,
+				status.matches( "\rdoc\\.xml: \\d+[.,]\\d KB of \\d+[.,]\\d KB \\(100%\\), \\d+ tags/s, done in \\d+[.,]\\d s\\s*" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationProgress#totalBytes()}
+	 * to have no total, and so no estimate, for input of unknown size.
+	 * @throws IOException
+	 */
+	@Test
+	public void testProgress_UnknownSize() throws IOException
+	{
+		byte[] bytes = document.getBytes( StandardCharsets.UTF_8 );
+		validate( bytes, -1 );
+		ValidationProgress progress = parser.progress();
+		assertEquals( "Byte count is incorrect", bytes.length, progress.bytesProcessed() );
+		assertEquals( "Total is known", -1, progress.totalBytes() );
+		assertEquals( "Estimate is known", -1.0, progress.etaSeconds(), 0.0 );
+
+		String status = report( "-" );
+		assertFalse( "Status shows a total: " + status, status.contains( " of " ) || status.contains( "%" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationProgress#totalBytes()}
+	 * to have no total for UTF-16 input, which is transcoded before it is
+	 * scanned, and to count the UTF-8 bytes the scanner saw.
+	 * @throws IOException
+	 */
+	@Test
+	public void testProgress_Transcoded() throws IOException
+	{
+		byte[] bytes = ( "\uFEFF" + document ).getBytes( StandardCharsets.UTF_16LE );
+		validate( bytes, bytes.length );
+		ValidationProgress progress = parser.progress();
+		assertEquals( "Total is known", -1, progress.totalBytes() );
+		assertEquals( "Byte count is incorrect", document.getBytes( StandardCharsets.UTF_8 ).length,
+				progress.bytesProcessed() );
+		assertEquals( "Tag count is incorrect", TAGS, progress.tagsProcessed() );
+
+		String status = report( "utf16.xml" );
+		assertFalse( "Status shows a total: " + status, status.contains( " of " ) || status.contains( "%" ) );
+	}
+
+	private void validate( byte[] bytes, long sizeHint ) throws IOException
+	{
+		parser.validate( Channels.newChannel( new ByteArrayInputStream( bytes ) ), sizeHint );
+	}
+
+	/**
+	 * Returns the final status line a reporter prints for the parser's progress.
+	 */
+	private String report( String name ) throws IOException
+	{
+		ByteArrayOutputStream status = new ByteArrayOutputStream();
+		ProgressReporter reporter = new ProgressReporter( parser.progress(), name, new PrintStream( status, true, "UTF-8" ) );
+		reporter.start();
+		reporter.stop();
+		return new String( status.toByteArray(), StandardCharsets.UTF_8 );
+	}
+}
@@ -0,0 +1,142 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.ValidationServer;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the ValidationServer, run on a free loopback port and called over
+ * HTTP as a client would.
+ */
+public class ValidationServerTest
+{
+	// Attributes
+	private ValidationServer server;
+	private int port;
+	private int status;
+
+	/**
+	 * Starts a server on a free port before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		try ( ServerSocket probe = new ServerSocket( 0 ) )
+		{
+			port = probe.getLocalPort();
+		}
+		server = new ValidationServer( port );
+		server.start();
+	}
+
+	/**
+	 * Stops the server after each test.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		server.stop();
+		server = null;
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationServer#start()}
+	 * to answer a well-formed document as valid and complete.
+	 * @throws IOException
+	 */
+	@Test
+	public void testValidate_Valid() throws IOException
+	{
+		String json = post( "", "<a>\n<b/>\n</a>\n" );
+		assertEquals( "Status is incorrect", 200, status );
+		assertEquals( "JSON is incorrect", "{\"valid\":true,\"complete\":true,\"errors\":[]}", json );
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationServer#start()}
+	 * to answer with each error's message and tag, and to serve one request
+	 * after another from the pooled parsers.
+	 * @throws IOException
+	 */
+	@Test
+	public void testValidate_Errors() throws IOException
+	{
+		for ( int i = 0; i < 3; i++ )
+		{
+			String json = post( "", "<a>\n<b>\n</a>\n" );
+			assertEquals( "Status is incorrect", 200, status );
+			assertEquals( "JSON is incorrect",
+					"{\"valid\":false,\"complete\":true,\"errors\":[{\"message\":\"Error at line 2\",\"tag\":\"<b>\"}]}", json );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.ValidationServer#start()}
+	 * to refuse methods other than POST and timeouts that are not a positive
+	 * number.
+	 * @throws IOException
+	 */
+	@Test
+	public void testValidate_BadRequests() throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) url( "" ).openConnection();
+		assertEquals( "GET was not refused", 405, connection.getResponseCode() );
+		assertEquals( "Allowed methods are incorrect", "POST", connection.getHeaderField( "Allow" ) );
+		connection.disconnect();
+
+		post( "?timeoutMs=0", "<a/>" );
+		assertEquals( "Zero timeout was not refused", 400, status );
+		assertEquals( "Error is incorrect", "{\"error\":\"timeoutMs must be a positive whole number of milliseconds\"}",
+				post( "?timeoutMs=abc", "<a/>" ) );
+		assertEquals( "Malformed timeout was not refused", 400, status );
+		post( "?timeoutMs=999999999", "<a/>" );
+		assertEquals( "Long timeout was not clamped", 200, status );
+	}
+
+	/**
+	 * Posts a document and returns the response body, setting status.
+	 */
+	private String post( String query, String document ) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) url( query ).openConnection();
+		connection.setRequestMethod( "POST" );
+		connection.setDoOutput( true );
+		try ( OutputStream out = connection.getOutputStream() )
+		{
+			out.write( document.getBytes( StandardCharsets.UTF_8 ) );
+		}
+		status = connection.getResponseCode();
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int n;
+		while ( in != null && ( n = in.read( buffer ) ) != -1 )
+		{
+			body.write( buffer, 0, n );
+		}
+		connection.disconnect();
+		return new String( body.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private URL url( String query ) throws IOException
+	{
+		return new URL( "http://127.0.0.1:" + port + "/validate" + query );
+	}
+}
@@ -0,0 +1,110 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.XMLMinifier;
+import appDomain.XMLParser;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the XMLMinifier, run as a listener of the parser, checking the
+ * bytes it writes.
+ */
+public class XMLMinifierTest
+{
+	// Attributes
+	private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+	private XMLParser parser;
+	private ByteArrayOutputStream output;
+
+	/**
+	 * Initializes a parser and a buffer for the minified output before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+		output = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLMinifier#text(java.nio.ByteBuffer, int, int)}
+	 * to drop indentation, keep text with other characters exactly, replace
+	 * the declaration and drop comments.
+	 * @throws IOException
+	 */
+	@Test
+	public void testMinify_Whitespace() throws IOException
+	{
+		assertEquals( "Output is incorrect", DECLARATION + "<r><c/><d>  text  here </d><e/></r>",
+				minify( "<?xml version=\"1.0\"?>\n<!-- note -->\n<r>\n  <c/>\n  <d>  text  here </d>\n\t<e/>\n</r>\n" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLMinifier#tag(byte[], int, int, long)}
+	 * to remove the spaces inside tags, double-quote every value and sort the
+	 * attributes with namespace declarations first.
+	 * @throws IOException
+	 */
+	@Test
+	public void testMinify_Tags() throws IOException
+	{
+		assertEquals( "Output is incorrect",
+				DECLARATION + "<r xmlns=\"d\" xmlns:p=\"u\" a=\"2\" b=\"x&quot;y\" z=\"1\"><e x=\"&amp;\"/></r>",
+				minify( "<r  z = \"1\" xmlns:p=\"u\"   b='x\"y' xmlns=\"d\" a=\"2\" >\n<e x=\"&amp;\"  />\n</r >" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLMinifier#cdata(java.nio.ByteBuffer, int, int)}
+	 * to write CDATA sections as escaped text and drop processing
+	 * instructions and the DOCTYPE.
+	 * @throws IOException
+	 */
+	@Test
+	public void testMinify_Sections() throws IOException
+	{
+		assertEquals( "Output is incorrect", DECLARATION + "<r>a&lt;b &amp; c]]&gt;</r>",
+				minify( "<!DOCTYPE r>\n<r><?pi x?><![CDATA[a<b & c]]>]]&gt;</r>\n" ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLMinifier#close()}
+	 * to minify a document several chunks long the same as its parts, with
+	 * the output buffer flushed and the channel closed.
+	 * @throws IOException
+	 */
+	@Test
+	public void testMinify_LargeDocument() throws IOException
+	{
+		StringBuilder document = new StringBuilder( "<r>\n" );
+		StringBuilder expected = new StringBuilder( DECLARATION + "<r>" );
+		for ( int i = 0; document.length() < 300 * 1024; i++ )
+		{
+			document.append( "    <e   n='" ).append( i ).append( "' >value " ).append( i ).append( "</e>\n" );
+			expected.append( "<e n=\"" ).append( i ).append( "\">value " ).append( i ).append( "</e>" );
+		}
+		assertEquals( "Output is incorrect", expected.append( "</r>" ).toString(),
+				minify( document.append( "</r>\n" ).toString() ) );
+	}
+
+	private String minify( String document ) throws IOException
+	{
+		XMLMinifier minifier = new XMLMinifier( Channels.newChannel( output ) );
+		parser.addListener( minifier );
+		parser.validate( Channels.newChannel( new ByteArrayInputStream( document.getBytes( StandardCharsets.UTF_8 ) ) ), -1 );
+		minifier.close();
+		return new String( output.toByteArray(), StandardCharsets.UTF_8 ).trim();
+	}
+}
@@ -0,0 +1,238 @@
+package unitTests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import appDomain.XMLParser;
+import exceptions.EmptyQueueException;
+
+/**
+ * @author Team Riju
+ * Class Description:
+ * Tests for the XMLParser entry points and the options that bound the
+ * memory of a validation.
+ */
+public class XMLParserTest
+{
+	// Attributes
+	private XMLParser parser;
+	private Path file;
+
+	/**
+	 * Initializes a parser that prints to a discarded stream before each test.
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		parser = new XMLParser( new PrintStream( new ByteArrayOutputStream() ) );
+	}
+
+	/**
+	 * Removes the file a test wrote, if any.
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		if ( file != null )
+		{
+			Files.delete( file );
+		}
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#parseStream(String, ReadableByteChannel)}
+	 * to print the same log for input of unknown length, spanning several
+	 * chunks, as parseFile prints for the same bytes in a file.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testParseStream_SameLogAsFile() throws IOException, EmptyQueueException
+	{
+		byte[] document = largeDocument();
+		String name = writeFile( document );
+		String stream = log( name, Channels.newChannel( new ByteArrayInputStream( document ) ) );
+		assertTrue( "Errors not found", stream.contains( "<b>" ) );
+		assertEquals( "Logs differ", log( name, null ), stream );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#parseStream(String, ReadableByteChannel)}
+	 * to read a pipe to its end while the writer sends it in small pieces.
+	 * @throws Exception
+	 */
+	@Test
+	public void testParseStream_Pipe() throws Exception
+	{
+		byte[] document = largeDocument();
+		String name = writeFile( document );
+		Pipe pipe = Pipe.open();
+		Thread writer = new Thread( () -> {
+			try ( Pipe.SinkChannel sink = pipe.sink() )
+			{
+				for ( int i = 0; i < document.length; i += 1000 )
+				{
+					ByteBuffer piece = ByteBuffer.wrap( document, i, Math.min( 1000, document.length - i ) );
+					while ( piece.hasRemaining() )
+					{
+						sink.write( piece );
+					}
+				}
+			}
+			catch ( IOException e )
+			{
+				// the reader sees the pipe end early
+			}
+		} );
+		writer.start();
+		String stream = log( name, pipe.source() );
+		writer.join();
+		assertEquals( "Logs differ", log( name, null ), stream );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#checkHeapBudget()}
+	 * to reject a budget below the fixed heap buffers and accept the least
+	 * budget it names.
+	 */
+	@Test
+	public void testCheckHeapBudget()
+	{
+		parser.setMaxHeapBudget( 100 * 1024 );
+		long needed = 0;
+		try
+		{
+			parser.checkHeapBudget();
+			fail( "A 100 KB budget was accepted" );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			String message = e.getMessage();
+			needed = Long.parseLong( message.substring( message.indexOf( "at least " ) + 9, message.indexOf( " bytes are" ) ) );
+		}
+		parser.setMaxHeapBudget( needed );
+		parser.checkHeapBudget();
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setMaxHeapBudget(long)}
+	 * to limit tags to a sixteenth of the budget, reporting a longer tag and
+	 * carrying on after it.
+	 * @throws IOException
+	 * @throws EmptyQueueException
+	 */
+	@Test
+	public void testSetMaxHeapBudget_LimitsTags() throws IOException, EmptyQueueException
+	{
+		StringBuilder value = new StringBuilder();
+		for ( int i = 0; i < 100 * 1024; i++ )
+		{
+			value.append( 'v' );
+		}
+		String document = "<r>\n<a x=\"" + value + "\"/>\n<b/>\n</r>\n";
+
+		assertEquals( "Long tag rejected without a budget", 0, validate( document ).size() );
+
+		parser.setMaxHeapBudget( 1024 * 1024 );
+		List<String> errors = validate( document );
+		assertEquals( "Error count is incorrect", 2, errors.size() );
+		assertEquals( "Error is incorrect", "Tag too long at line 2, column 1", errors.get( 0 ) );
+		assertEquals( "Excerpt is incorrect", "<a x=\"" + value.substring( 0, 58 ), errors.get( 1 ) );
+	}
+
+	/**
+	 * Test method for {@link appDomain.XMLParser#setMaxDepth(int)}
+	 * to reject a depth below 1 or above the limit before allocating a stack.
+	 */
+	@Test
+	public void testSetMaxDepth_OutOfRange()
+	{
+		for ( int depth : new int[] { 0, -1, XMLParser.MAX_DEPTH_LIMIT + 1, Integer.MAX_VALUE } )
+		{
+			try
+			{
+				parser.setMaxDepth( depth );
+				fail( "Depth " + depth + " was accepted" );
+			}
+			catch ( IllegalArgumentException e )
+			{
+				// expected
+			}
+		}
+		parser.setMaxDepth( XMLParser.MAX_DEPTH_LIMIT );
+	}
+
+	/**
+	 * Returns a document of several chunks with an error in it.
+	 */
+	private static byte[] largeDocument()
+	{
+		StringBuilder document = new StringBuilder( "<r>\n" );
+		for ( int i = 0; document.length() < 300 * 1024; i++ )
+		{
+			document.append( "<e n=\"" ).append( i ).append( "\">text ").append( i ).append( "</e>\n" );
+			if ( i == 1000 )
+			{
+				document.append( "<a>\n<b>\n</a>\n" );
+			}
+		}
+		document.append( "</r>\n" );
+		return document.toString().getBytes( StandardCharsets.UTF_8 );
+	}
+
+	private String writeFile( byte[] document ) throws IOException
+	{
+		file = Files.createTempFile( "stream", ".xml" );
+		Files.write( file, document );
+		return file.toString();
+	}
+
+	/**
+	 * Returns the log printed for source, or for the file if source is null.
+	 */
+	private static String log( String name, ReadableByteChannel source ) throws IOException, EmptyQueueException
+	{
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		XMLParser printing = new XMLParser( new PrintStream( log, true, "UTF-8" ) );
+		if ( source == null )
+		{
+			printing.parseFile( name );
+		}
+		else
+		{
+			printing.parseStream( name, source );
+		}
+		return new String( log.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private List<String> validate( String document ) throws IOException, EmptyQueueException
+	{
+		byte[] bytes = document.getBytes( StandardCharsets.UTF_8 );
+		parser.validate( Channels.newChannel( new ByteArrayInputStream( bytes ) ), bytes.length );
+		List<String> errors = new ArrayList<>();
+		while ( parser.hasErrors() )
+		{
+			errors.add( parser.nextError() );
+		}
+		return errors;
+	}
+}